@@ -16,24 +16,69 @@
 
 package com.techsenger.mvvm4fx.core;
 
-import java.util.LinkedList;
 import java.util.List;
 import java.util.NoSuchElementException;
-import java.util.Queue;
-import javafx.util.Pair;
+import java.util.function.Predicate;
 
 /**
+ * Breadth-first iterator that keeps pending nodes and their depths in two parallel arrays used as a ring buffer, so no
+ * objects are allocated per visited node. The children of a returned node are read and filtered only when the
+ * iteration continues, so {@link #skipChildren()} doesn't cost anything for them.
  *
  * @author Pavel Castornii
  */
 abstract class AbstractBreadthFirstIterator<T> implements SubtreeIterator<T> {
 
-    private final Queue<Pair<T, Integer>> queue = new LinkedList<>();
+    /**
+     * Must be a power of two.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Object[] nodes = new Object[INITIAL_CAPACITY];
+
+    private int[] depths = new int[INITIAL_CAPACITY];
+
+    private int head;
+
+    private int size;
 
     private int currentDepth = -1;
 
+    /**
+     * The current node whose children haven't been added to the queue yet or {@code null}.
+     */
+    private T unexpanded;
+
+    /**
+     * The number of children of the current node that were added to the queue.
+     */
+    private int pushedCount;
+
+    private final int maxDepth;
+
+    private final Predicate<? super T> filter;
+
     AbstractBreadthFirstIterator(T root) {
-        queue.offer(new Pair<>(root, 0));
+        this(root, Integer.MAX_VALUE, null);
+    }
+
+    /**
+     * Creates an iterator that doesn't descend deeper than {@code maxDepth} and that excludes the children (together
+     * with their subtrees) for which the filter returns {@code false}. The root is always returned.
+     *
+     * @param root the root of the subtree
+     * @param maxDepth the maximal depth of the returned elements, the root has depth {@code 0}
+     * @param filter the filter for the children or {@code null} if all children are accepted
+     */
+    AbstractBreadthFirstIterator(T root, int maxDepth, Predicate<? super T> filter) {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("Max depth can't be negative");
+        }
+        this.maxDepth = maxDepth;
+        this.filter = filter;
+        nodes[0] = root;
+        depths[0] = 0;
+        size = 1;
     }
 
     @Override
@@ -46,7 +91,8 @@ abstract class AbstractBreadthFirstIterator<T> implements SubtreeIterator<T> {
 
     @Override
     public boolean hasNext() {
-        return !queue.isEmpty();
+        expand();
+        return size != 0;
     }
 
     @Override
@@ -54,16 +100,80 @@ abstract class AbstractBreadthFirstIterator<T> implements SubtreeIterator<T> {
         if (!hasNext()) {
             throw new NoSuchElementException();
         }
+        @SuppressWarnings("unchecked")
+        T node = (T) nodes[head];
+        nodes[head] = null;
+        currentDepth = depths[head];
+        head = (head + 1) & (nodes.length - 1);
+        size--;
+        pushedCount = 0;
+        unexpanded = currentDepth < maxDepth ? node : null;
+        return node;
+    }
 
-        var pair = queue.poll();
-        var node = pair.getKey();
-        currentDepth = pair.getValue();
-        List<T> children = getChildren(node);
-        for (T child : children) {
-            queue.offer(new Pair<>(child, currentDepth + 1));
+    @Override
+    public void skipChildren() {
+        if (currentDepth == -1) {
+            throw new IllegalStateException("next() hasn't been called yet");
         }
-        return node;
+        if (unexpanded != null) {
+            unexpanded = null;
+            return;
+        }
+        // the children of the current node have been added by hasNext() and are at the tail of the queue
+        int mask = nodes.length - 1;
+        for (int i = 0; i < pushedCount; i++) {
+            size--;
+            nodes[(head + size) & mask] = null;
+        }
+        pushedCount = 0;
     }
 
     abstract List<T> getChildren(T parent);
+
+    /**
+     * Adds the accepted children of the current node to the queue.
+     */
+    private void expand() {
+        if (unexpanded == null) {
+            return;
+        }
+        List<T> children = getChildren(unexpanded);
+        unexpanded = null;
+        int childDepth = currentDepth + 1;
+        int childCount = children.size();
+        ensureCapacity(size + childCount);
+        int mask = nodes.length - 1;
+        for (int i = 0; i < childCount; i++) {
+            T child = children.get(i);
+            if (filter == null || filter.test(child)) {
+                int tail = (head + size) & mask;
+                nodes[tail] = child;
+                depths[tail] = childDepth;
+                size++;
+                pushedCount++;
+            }
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= nodes.length) {
+            return;
+        }
+        int newCapacity = nodes.length;
+        while (newCapacity < capacity) {
+            newCapacity <<= 1;
+        }
+        var newNodes = new Object[newCapacity];
+        var newDepths = new int[newCapacity];
+        // unwraps the ring so that the head is at index 0
+        int firstPart = Math.min(size, nodes.length - head);
+        System.arraycopy(nodes, head, newNodes, 0, firstPart);
+        System.arraycopy(depths, head, newDepths, 0, firstPart);
+        System.arraycopy(nodes, 0, newNodes, firstPart, size - firstPart);
+        System.arraycopy(depths, 0, newDepths, firstPart, size - firstPart);
+        nodes = newNodes;
+        depths = newDepths;
+        head = 0;
+    }
 }
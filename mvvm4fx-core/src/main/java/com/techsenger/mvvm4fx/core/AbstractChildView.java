@@ -18,6 +18,9 @@ package com.techsenger.mvvm4fx.core;
 
 import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.Node;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,6 +35,22 @@ public abstract class AbstractChildView<T extends AbstractChildViewModel> extend
 
     private final ReadOnlyObjectWrapper<ParentView<?>> parent = new ReadOnlyObjectWrapper<>();
 
+    private final ChangeListener<ParentView<?>> parentListener = (ov, oldV, newV) -> {
+        if (newV == null) {
+            getViewModel().parentWrapper().set(null);
+        } else {
+            getViewModel().parentWrapper().set(newV.getViewModel());
+        }
+    };
+
+    /**
+     * The condition of the pending lazy initialization. It is kept to prevent the condition from being garbage
+     * collected, as bindings are observed via weak listeners.
+     */
+    private ObservableValue<Boolean> lazyInitializationCondition;
+
+    private ChangeListener<Boolean> lazyInitializationListener;
+
     public AbstractChildView(T viewModel) {
         super(viewModel);
     }
@@ -47,15 +66,81 @@ public abstract class AbstractChildView<T extends AbstractChildViewModel> extend
     }
 
     @Override
-    protected void addListeners(T viewModel) {
-        super.addListeners(viewModel);
-        parent.addListener((ov, oldV, newV) -> {
-            if (newV == null) {
-                viewModel.parentWrapper().set(null);
-            } else {
-                viewModel.parentWrapper().set(newV.getViewModel());
+    public void initializeLazily() {
+        initializeWhen(createDisplayedCondition());
+    }
+
+    @Override
+    public void initializeWhen(ObservableValue<Boolean> condition) {
+        // only one condition can be pending
+        cancelPendingInitialization();
+        if (getViewModel().getDescriptor().getState() != ComponentState.CONSTRUCTED) {
+            throw new IllegalStateException("Unexpected state of the component");
+        }
+        if (Boolean.TRUE.equals(condition.getValue())) {
+            initialize();
+            return;
+        }
+        this.lazyInitializationCondition = condition;
+        this.lazyInitializationListener = (ov, oldV, newV) -> {
+            if (Boolean.TRUE.equals(newV)) {
+                cancelPendingInitialization();
+                if (getViewModel().getDescriptor().getState() == ComponentState.CONSTRUCTED) {
+                    logger.debug("{} Initializing lazily", getViewModel().getDescriptor().getLogPrefix());
+                    initialize();
+                }
             }
-        });
+        };
+        condition.addListener(lazyInitializationListener);
+    }
+
+    @Override
+    boolean cancelPendingInitialization() {
+        if (lazyInitializationCondition == null) {
+            return false;
+        }
+        lazyInitializationCondition.removeListener(lazyInitializationListener);
+        if (lazyInitializationCondition instanceof NodeDisplayedBinding) {
+            ((NodeDisplayedBinding) lazyInitializationCondition).dispose();
+        }
+        lazyInitializationCondition = null;
+        lazyInitializationListener = null;
+        return true;
+    }
+
+    @Override
+    boolean isInitializationPending() {
+        return lazyInitializationCondition != null;
+    }
+
+    @Override
+    void addInternalListeners() {
+        super.addInternalListeners();
+        parent.addListener(parentListener);
+    }
+
+    @Override
+    void removeInternalListeners() {
+        parent.removeListener(parentListener);
+        super.removeInternalListeners();
+    }
+
+    /**
+     * Creates the condition that becomes {@code true} when the component is displayed, used by
+     * {@link #initializeLazily()}. The default implementation supports the components whose main node is a
+     * {@link Node} and returns {@code true} when the node is in a scene of a showing window and the node and all of
+     * its ancestors are visible, so the content of an unselected tab or of a collapsed titled pane isn't displayed.
+     * Components whose main node is a tab, a titled pane etc should override this method and return, for example,
+     * the selected property of the tab.
+     *
+     * @return the displayed condition
+     */
+    protected ObservableValue<Boolean> createDisplayedCondition() {
+        var node = getNode();
+        if (!(node instanceof Node)) {
+            throw new IllegalStateException("Displayed condition can't be resolved for the main node " + node);
+        }
+        return new NodeDisplayedBinding((Node) node);
     }
 
     /**
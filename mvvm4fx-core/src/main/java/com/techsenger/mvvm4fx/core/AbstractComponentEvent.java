@@ -0,0 +1,44 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.mvvm4fx.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+
+/**
+ * Base JDK Flight Recorder event that identifies the component the event relates to.
+ *
+ * @author Pavel Castornii
+ */
+@Category("MVVM4FX")
+abstract class AbstractComponentEvent extends jdk.jfr.Event {
+
+    @Label("Component Name")
+    String componentName;
+
+    @Label("Full Name")
+    String fullName;
+
+    @Label("UUID")
+    String uuid;
+
+    void setComponent(ComponentDescriptor descriptor) {
+        this.componentName = descriptor.getName().getText();
+        this.fullName = descriptor.getFullName();
+        this.uuid = descriptor.getUuid().toString();
+    }
+}
@@ -16,6 +16,17 @@
 
 package com.techsenger.mvvm4fx.core;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javafx.application.Platform;
+import jdk.jfr.EventType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,11 +38,31 @@ public abstract class AbstractComponentView<T extends AbstractComponentViewModel
 
     private static final Logger logger = LoggerFactory.getLogger(AbstractComponentView.class);
 
+    private static final ExecutorService prepareExecutor = createPrepareExecutor();
+
+    private static final EventType phaseEventType = EventType.getEventType(LifecyclePhaseEvent.class);
+
     private T viewModel;
 
+    /**
+     * Whether the nodes of the view have been built and not unbuilt yet. Only a reused (pooled) view can be
+     * initialized when it is already built.
+     */
+    private boolean built;
+
+    private SubscriptionRegistry bindSubscriptions;
+
+    private SubscriptionRegistry listenerSubscriptions;
+
+    /**
+     * Whether the component is being initialized asynchronously, from the call of {@link #initializeAsync(Executor)}
+     * till the end of the initialization in the FX thread.
+     */
+    private final AtomicBoolean preparing = new AtomicBoolean();
+
     public AbstractComponentView(T viewModel) {
         this.viewModel = viewModel;
-        this.viewModel.getDescriptor().stateWrapper().set(ComponentState.CONSTRUCTED);
+        this.viewModel.getDescriptor().setState(ComponentState.CONSTRUCTED);
     }
 
     @Override
@@ -39,27 +70,70 @@ public abstract class AbstractComponentView<T extends AbstractComponentViewModel
         return viewModel;
     }
 
+    /**
+     * Returns the number of the subscriptions currently recorded in the registries of this view. It can be used for
+     * analysing the memory consumed by listeners.
+     *
+     * @return the number of subscriptions
+     */
+    public int getSubscriptionCount() {
+        int count = 0;
+        if (bindSubscriptions != null) {
+            count += bindSubscriptions.size();
+        }
+        if (listenerSubscriptions != null) {
+            count += listenerSubscriptions.size();
+        }
+        return count;
+    }
+
     /**
      * Initializes view.
      */
     @Override
     public final void initialize() {
+        if (initializeBuildPhase()) {
+            initializeBindPhase();
+        }
+    }
+
+    @Override
+    public final CompletableFuture<Void> initializeAsync() {
+        return initializeAsync(prepareExecutor);
+    }
+
+    @Override
+    public final CompletableFuture<Void> initializeAsync(Executor executor) {
         var descriptor = this.viewModel.getDescriptor();
+        if (descriptor.getState() != ComponentState.CONSTRUCTED) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Unexpected state of the component"));
+        }
+        if (!preparing.compareAndSet(false, true)) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Component is already being initialized"));
+        }
+        CompletableFuture<Void> future;
         try {
-            if (descriptor.stateWrapper().get() != ComponentState.CONSTRUCTED) {
-                throw new IllegalStateException("Unexpected state of the component");
-            }
-            preInitialize(viewModel);
-            build(viewModel);
-            bind(viewModel);
-            addListeners(viewModel);
-            addHandlers(viewModel);
-            descriptor.stateWrapper().set(ComponentState.INITIALIZED);
-            logger.debug("{} Initialized component", descriptor.getLogPrefix());
-            postInitialize(viewModel);
-        } catch (Exception ex) {
-            logger.error("{} Error initializing", descriptor.getLogPrefix(), ex);
+            future = CompletableFuture.runAsync(() -> {
+                        try {
+                            runPhase(LifecyclePhase.PREPARE);
+                            logger.debug("{} Prepared component", descriptor.getLogPrefix());
+                        } catch (Exception ex) {
+                            logger.error("{} Error preparing", descriptor.getLogPrefix(), ex);
+                            throw ex;
+                        }
+                    }, executor)
+                    .thenRunAsync(() -> {
+                        initialize();
+                        if (descriptor.getState() != ComponentState.INITIALIZED) {
+                            throw new IllegalStateException("Component was not initialized");
+                        }
+                    }, Platform::runLater);
+        } catch (RuntimeException ex) {
+            // for example, the executor rejected the task
+            preparing.set(false);
+            throw ex;
         }
+        return future.whenComplete((v, ex) -> preparing.set(false));
     }
 
     /**
@@ -67,24 +141,337 @@ public abstract class AbstractComponentView<T extends AbstractComponentViewModel
      */
     @Override
     public final void deinitialize() {
+        deinitialize(true);
+    }
+
+    /**
+     * Deinitializes view. When the view is released to a {@link ComponentPool} its nodes are kept, so it is
+     * deinitialized without unbuilding.
+     *
+     * @param unbuild whether {@link #unbuild} should be called
+     */
+    void deinitialize(boolean unbuild) {
         var descriptor = this.viewModel.getDescriptor();
         try {
-            if (descriptor.stateWrapper().get() != ComponentState.INITIALIZED) {
+            var state = descriptor.getState();
+            if (state == ComponentState.CONSTRUCTED && cancelPendingInitialization()) {
+                // the component will never be initialized, so it must not be counted as a live one
+                descriptor.setState(ComponentState.DEINITIALIZED);
+                logger.debug("{} Cancelled lazy initialization", descriptor.getLogPrefix());
+                return;
+            }
+            if (state != ComponentState.INITIALIZED && state != ComponentState.SUSPENDED) {
                 throw new IllegalStateException("Unexpected state of the component");
             }
-            preDeinitialize(viewModel);
-            removeHandlers(viewModel);
-            removeListeners(viewModel);
-            unbind(viewModel);
-            unbuild(viewModel);
-            descriptor.stateWrapper().set(ComponentState.DEINITIALIZED);
+            runPhase(LifecyclePhase.PRE_DEINITIALIZE);
+            // handlers and listeners of the suspended component have already been removed
+            if (state == ComponentState.INITIALIZED) {
+                runPhase(LifecyclePhase.REMOVE_HANDLERS);
+                runPhase(LifecyclePhase.REMOVE_LISTENERS);
+                removeSubscriptions(listenerSubscriptions);
+            }
+            removeInternalListeners();
+            runPhase(LifecyclePhase.UNBIND);
+            removeSubscriptions(bindSubscriptions);
+            if (unbuild) {
+                runPhase(LifecyclePhase.UNBUILD);
+                built = false;
+            }
+            descriptor.setState(ComponentState.DEINITIALIZED);
             logger.debug("{} Deinitialized component", descriptor.getLogPrefix());
-            postDeinitialize(viewModel);
+            runPhase(LifecyclePhase.POST_DEINITIALIZE);
+            // the pooled view and its view model are still referenced by the pool
+            if (unbuild) {
+                LeakDetector.track(this, descriptor);
+                LeakDetector.track(this.viewModel, descriptor);
+            }
         } catch (Exception ex) {
             logger.error("{} Error deinitializing", descriptor.getLogPrefix(), ex);
         }
     }
 
+    @Override
+    public final void suspend() {
+        var descriptor = this.viewModel.getDescriptor();
+        try {
+            if (descriptor.getState() != ComponentState.INITIALIZED) {
+                throw new IllegalStateException("Unexpected state of the component");
+            }
+            runPhase(LifecyclePhase.PRE_SUSPEND);
+            runPhase(LifecyclePhase.REMOVE_HANDLERS);
+            runPhase(LifecyclePhase.REMOVE_LISTENERS);
+            removeSubscriptions(listenerSubscriptions);
+            descriptor.setState(ComponentState.SUSPENDED);
+            logger.debug("{} Suspended component", descriptor.getLogPrefix());
+        } catch (Exception ex) {
+            logger.error("{} Error suspending", descriptor.getLogPrefix(), ex);
+        }
+    }
+
+    @Override
+    public final void resume() {
+        var descriptor = this.viewModel.getDescriptor();
+        try {
+            if (descriptor.getState() != ComponentState.SUSPENDED) {
+                throw new IllegalStateException("Unexpected state of the component");
+            }
+            runPhase(LifecyclePhase.ADD_LISTENERS);
+            runPhase(LifecyclePhase.ADD_HANDLERS);
+            descriptor.setState(ComponentState.INITIALIZED);
+            logger.debug("{} Resumed component", descriptor.getLogPrefix());
+            runPhase(LifecyclePhase.POST_RESUME);
+        } catch (Exception ex) {
+            logger.error("{} Error resuming", descriptor.getLogPrefix(), ex);
+        }
+    }
+
+    /**
+     * Runs the first phase of the initialization that builds the view: {@link #preInitialize} and {@link #build}. The
+     * view is not bound yet and doesn't react to any changes.
+     *
+     * @return {@code true} if the phase completed successfully, {@code false} otherwise
+     */
+    boolean initializeBuildPhase() {
+        var descriptor = this.viewModel.getDescriptor();
+        try {
+            if (descriptor.getState() != ComponentState.CONSTRUCTED) {
+                throw new IllegalStateException("Unexpected state of the component");
+            }
+            // the component is initialized explicitly, so the lazy initialization isn't needed anymore
+            cancelPendingInitialization();
+            runPhase(LifecyclePhase.PRE_INITIALIZE);
+            if (built) {
+                runPhase(LifecyclePhase.REBUILD);
+            } else {
+                runPhase(LifecyclePhase.BUILD);
+                built = true;
+            }
+            return true;
+        } catch (Exception ex) {
+            logger.error("{} Error initializing", descriptor.getLogPrefix(), ex);
+            return false;
+        }
+    }
+
+    /**
+     * Runs the second phase of the initialization: {@link #bind}, {@link #addListeners}, {@link #addHandlers}, then
+     * sets {@link ComponentState#INITIALIZED} state and calls {@link #postInitialize}. This phase must follow
+     * the successful {@link #initializeBuildPhase()}.
+     */
+    void initializeBindPhase() {
+        var descriptor = this.viewModel.getDescriptor();
+        try {
+            runPhase(LifecyclePhase.BIND);
+            addInternalListeners();
+            runPhase(LifecyclePhase.ADD_LISTENERS);
+            runPhase(LifecyclePhase.ADD_HANDLERS);
+            descriptor.setState(ComponentState.INITIALIZED);
+            logger.debug("{} Initialized component", descriptor.getLogPrefix());
+            runPhase(LifecyclePhase.POST_INITIALIZE);
+        } catch (Exception ex) {
+            logger.error("{} Error initializing", descriptor.getLogPrefix(), ex);
+        }
+    }
+
+    /**
+     * Prepares the component in a background thread when the component is initialized via
+     * {@link #initializeAsync()}. This method can be used for loading data and building nodes that are not attached
+     * to a live scene yet. It must not access the scene graph that is already shown or the properties that are
+     * observed in the FX thread. It is not called by {@link #initialize()}.
+     */
+    protected void prepare(T viewModel) {
+
+    }
+
+    /**
+     * Returns the registry for the bindings made in {@link #bind}. The recorded bindings and listeners are undone
+     * automatically right after {@link #unbind} is called.
+     *
+     * @return the registry of the bind subscriptions
+     */
+    protected final SubscriptionRegistry getBindSubscriptions() {
+        if (bindSubscriptions == null) {
+            bindSubscriptions = new SubscriptionRegistry();
+        }
+        return bindSubscriptions;
+    }
+
+    /**
+     * Returns the registry for the listeners and handlers added in {@link #addListeners} and {@link #addHandlers}.
+     * The recorded subscriptions are undone automatically right after {@link #removeListeners} is called, that is
+     * when the component is suspended or deinitialized.
+     *
+     * @return the registry of the listener subscriptions
+     */
+    protected final SubscriptionRegistry getListenerSubscriptions() {
+        if (listenerSubscriptions == null) {
+            listenerSubscriptions = new SubscriptionRegistry();
+        }
+        return listenerSubscriptions;
+    }
+
+    private void removeSubscriptions(SubscriptionRegistry registry) {
+        if (registry != null) {
+            registry.removeAll();
+        }
+    }
+
+    /**
+     * Calls the hook of the lifecycle phase, recording its duration if {@link LifecycleMetrics} are enabled and
+     * emitting {@link LifecyclePhaseEvent} if it is enabled in the flight recorder. When neither is enabled, the hook
+     * is called directly without allocating anything.
+     */
+    private void runPhase(LifecyclePhase phase) {
+        boolean metricsEnabled = LifecycleMetrics.isEnabled();
+        if (!metricsEnabled && !phaseEventType.isEnabled()) {
+            callHook(phase);
+            return;
+        }
+        var event = new LifecyclePhaseEvent();
+        long start = System.nanoTime();
+        event.begin();
+        try {
+            callHook(phase);
+        } finally {
+            event.end();
+            var descriptor = viewModel.getDescriptor();
+            if (metricsEnabled) {
+                LifecycleMetrics.record(descriptor.getName(), phase, System.nanoTime() - start);
+            }
+            if (event.shouldCommit()) {
+                event.setComponent(descriptor);
+                event.phase = phase.name();
+                event.commit();
+            }
+        }
+    }
+
+    private void callHook(LifecyclePhase phase) {
+        switch (phase) {
+            case PREPARE:
+                prepare(viewModel);
+                break;
+            case PRE_INITIALIZE:
+                preInitialize(viewModel);
+                break;
+            case BUILD:
+                build(viewModel);
+                break;
+            case REBUILD:
+                rebuild(viewModel);
+                break;
+            case BIND:
+                bind(viewModel);
+                break;
+            case ADD_LISTENERS:
+                addListeners(viewModel);
+                break;
+            case ADD_HANDLERS:
+                addHandlers(viewModel);
+                break;
+            case POST_INITIALIZE:
+                postInitialize(viewModel);
+                break;
+            case PRE_SUSPEND:
+                preSuspend(viewModel);
+                break;
+            case POST_RESUME:
+                postResume(viewModel);
+                break;
+            case PRE_DEINITIALIZE:
+                preDeinitialize(viewModel);
+                break;
+            case REMOVE_HANDLERS:
+                removeHandlers(viewModel);
+                break;
+            case REMOVE_LISTENERS:
+                removeListeners(viewModel);
+                break;
+            case UNBIND:
+                unbind(viewModel);
+                break;
+            case UNBUILD:
+                unbuild(viewModel);
+                break;
+            case POST_DEINITIALIZE:
+                postDeinitialize(viewModel);
+                break;
+            default:
+                throw new AssertionError();
+        }
+    }
+
+    /**
+     * Adds the listeners the framework needs for maintaining the component hierarchy. Unlike
+     * {@link #addListeners}, these listeners are not removed when the component is suspended.
+     */
+    void addInternalListeners() {
+
+    }
+
+    /**
+     * Removes the listeners added in {@link #addInternalListeners()}.
+     */
+    void removeInternalListeners() {
+
+    }
+
+    /**
+     * Cancels the pending lazy initialization of the component that is still in {@link ComponentState#CONSTRUCTED}
+     * state, removing the listener from the initialization condition.
+     *
+     * @return {@code true} if the initialization was pending, {@code false} otherwise
+     */
+    boolean cancelPendingInitialization() {
+        return false;
+    }
+
+    /**
+     * Returns whether the component waits for its lazy initialization.
+     *
+     * @return {@code true} if the lazy initialization is pending, {@code false} otherwise
+     */
+    boolean isInitializationPending() {
+        return false;
+    }
+
+    /**
+     * Prepares a deinitialized view that was released to a {@link ComponentPool} for reuse with the new view model.
+     * The view keeps its built nodes and becomes {@link ComponentState#CONSTRUCTED} again.
+     *
+     * @param viewModel the new unconstructed view model
+     */
+    void recycle(T viewModel) {
+        if (!built || this.viewModel.getDescriptor().getState() != ComponentState.DEINITIALIZED) {
+            throw new IllegalStateException("Only deinitialized built component can be reused");
+        }
+        if (viewModel.getDescriptor().getState() != ComponentState.UNCONSTRUCTED) {
+            throw new IllegalStateException("Unexpected state of the new view model");
+        }
+        logger.debug("{} Reusing view of {}", viewModel.getDescriptor().getLogPrefix(),
+                this.viewModel.getDescriptor().getFullName());
+        LeakDetector.track(this.viewModel, this.viewModel.getDescriptor());
+        this.viewModel = viewModel;
+        this.viewModel.getDescriptor().setState(ComponentState.CONSTRUCTED);
+    }
+
+    /**
+     * Unbuilds the view that was kept built in a {@link ComponentPool} and is evicted from it.
+     */
+    void unbuildRecycled() {
+        if (!built) {
+            return;
+        }
+        try {
+            unbuild(viewModel);
+        } catch (Exception ex) {
+            logger.error("{} Error unbuilding", viewModel.getDescriptor().getLogPrefix(), ex);
+        }
+        built = false;
+        LeakDetector.track(this, viewModel.getDescriptor());
+        LeakDetector.track(viewModel, viewModel.getDescriptor());
+    }
+
     /**
      * The first method called in initialization.
      */
@@ -99,6 +486,16 @@ public abstract class AbstractComponentView<T extends AbstractComponentViewModel
 
     }
 
+    /**
+     * Called instead of {@link #build} when a view that was reused from a {@link ComponentPool} is initialized. The
+     * nodes are already built, so this method should only reset their state that doesn't depend on bindings (for
+     * example, scroll positions or selection). Note, that as the view model of a reused view is replaced, the nodes
+     * must not capture the view model passed to {@link #build}, use {@link #getViewModel()} instead.
+     */
+    protected void rebuild(T viewModel) {
+
+    }
+
     /**
      * Binds view to viewModel etc.
      */
@@ -127,6 +524,20 @@ public abstract class AbstractComponentView<T extends AbstractComponentViewModel
 
     }
 
+    /**
+     * The first method called when the component is suspended, before the handlers and the listeners are removed.
+     */
+    protected void preSuspend(T viewModel) {
+
+    }
+
+    /**
+     * The last method called when the component is resumed, after the listeners and the handlers are added again.
+     */
+    protected void postResume(T viewModel) {
+
+    }
+
     /**
      * The first method called in deinitialization.
      */
@@ -175,4 +586,25 @@ public abstract class AbstractComponentView<T extends AbstractComponentViewModel
     protected void postDeinitialize(T viewModel) {
 
     }
+
+    private static ExecutorService createPrepareExecutor() {
+        int threadCount = Runtime.getRuntime().availableProcessors();
+        var executor = new ThreadPoolExecutor(threadCount, threadCount, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new PrepareThreadFactory());
+        // the threads are not kept when nothing is being prepared
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static final class PrepareThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            var thread = new Thread(runnable, "mvvm4fx-prepare-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
@@ -16,10 +16,8 @@
 
 package com.techsenger.mvvm4fx.core;
 
-import static com.techsenger.mvvm4fx.core.HistoryPolicy.ALL;
-import static com.techsenger.mvvm4fx.core.HistoryPolicy.APPEARANCE;
-import static com.techsenger.mvvm4fx.core.HistoryPolicy.DATA;
 import static com.techsenger.mvvm4fx.core.HistoryPolicy.NONE;
+import jdk.jfr.EventType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -31,6 +29,10 @@ public abstract class AbstractComponentViewModel implements ComponentViewModel {
 
     private static final Logger logger = LoggerFactory.getLogger(AbstractComponentViewModel.class);
 
+    private static final EventType stateChangeEventType = EventType.getEventType(StateChangeEvent.class);
+
+    private static final EventType historyEventType = EventType.getEventType(HistoryEvent.class);
+
     private final ComponentDescriptor descriptor;
 
     private HistoryProvider historyProvider;
@@ -39,62 +41,7 @@ public abstract class AbstractComponentViewModel implements ComponentViewModel {
 
     public AbstractComponentViewModel() {
         this.descriptor = createDescriptor();
-        this.descriptor.stateProperty().addListener((ov, oldV, newV) -> {
-            var policy = this.descriptor.getHistoryPolicy();
-            if (this.descriptor.getState() == ComponentState.CONSTRUCTED) {
-                logger.debug("{} History policy on constucting: {}", this.descriptor.getLogPrefix(), policy);
-                ComponentHistory history = null;
-                if (policy != NONE) {
-                    history = getOrRequestHistory();
-                    if (history.isFresh()) {
-                        logger.debug("{} History is fresh. Skipping restoration", this.descriptor.getLogPrefix());
-                    } else {
-                        switch (policy) {
-                            case DATA:
-                                history.restoreData(this);
-                                postHistoryRestore();
-                                break;
-                            case APPEARANCE:
-                                history.restoreAppearance(this);
-                                postHistoryRestore();
-                                break;
-                            case ALL:
-                                history.restoreData(this);
-                                history.restoreAppearance(this);
-                                postHistoryRestore();
-                            break;
-                            default:
-                                throw new AssertionError();
-                        }
-                    }
-                }
-            } else if (this.descriptor.getState() == ComponentState.DEINITIALIZED) {
-                logger.debug("{} History policy on deinitializing: {}", this.descriptor.getLogPrefix(), policy);
-                //The data and the appearance are saved to the history during the deinitialization of the component,
-                //not while the component is running, as this feature is rarely needed but significantly complicates
-                //the code.
-                switch (policy) {
-                    case DATA:
-                        preHistorySave();
-                        getOrRequestHistory().saveData(this);
-                        break;
-                    case APPEARANCE:
-                        preHistorySave();
-                        getOrRequestHistory().saveAppearance(this);
-                        break;
-                    case ALL:
-                        preHistorySave();
-                        var h = getOrRequestHistory();
-                        h.saveData(this);
-                        h.saveAppearance(this);
-                        break;
-                    case NONE:
-                        break;
-                    default:
-                        throw new AssertionError();
-                }
-            }
-        });
+        this.descriptor.setViewModel(this);
     }
 
     @Override
@@ -121,6 +68,137 @@ public abstract class AbstractComponentViewModel implements ComponentViewModel {
 
     protected abstract ComponentDescriptor createDescriptor();
 
+    /**
+     * Called by the descriptor directly when the state of the component changes, before the listeners of the state
+     * property, so no listener is needed per component. The {@link StateChangeEvent} is created only if it is enabled
+     * in the flight recorder.
+     */
+    void handleStateChange(ComponentState oldState, ComponentState newState) {
+        var event = stateChangeEventType.isEnabled() ? new StateChangeEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        try {
+            onStateChanged(oldState, newState);
+            ComponentMetrics.getInstance().onStateChanged(this.descriptor.getName(), oldState, newState);
+            var policy = this.descriptor.getHistoryPolicy();
+            if (newState == ComponentState.CONSTRUCTED) {
+                logger.debug("{} History policy on constucting: {}", this.descriptor.getLogPrefix(), policy);
+                if (policy != NONE) {
+                    restoreHistory(policy);
+                }
+            } else if (newState == ComponentState.DEINITIALIZED) {
+                logger.debug("{} History policy on deinitializing: {}", this.descriptor.getLogPrefix(), policy);
+                //The data and the appearance are saved to the history during the deinitialization of the component,
+                //not while the component is running, as this feature is rarely needed but significantly complicates
+                //the code.
+                if (policy != NONE) {
+                    saveHistory(policy);
+                }
+            }
+        } catch (Exception ex) {
+            logger.error("{} Error processing state change to {}", this.descriptor.getLogPrefix(), newState, ex);
+        }
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.setComponent(this.descriptor);
+            event.oldState = oldState.name();
+            event.newState = newState.name();
+            event.commit();
+        }
+    }
+
+    /**
+     * Called by the framework when the state of the component changes, before the history is processed.
+     */
+    void onStateChanged(ComponentState oldState, ComponentState newState) {
+
+    }
+
+    private void restoreHistory(HistoryPolicy policy) {
+        ComponentHistory history = getOrRequestHistory();
+        if (history.isFresh()) {
+            logger.debug("{} History is fresh. Skipping restoration", this.descriptor.getLogPrefix());
+            return;
+        }
+        var event = beginHistoryEvent();
+        switch (policy) {
+            case DATA:
+                history.restoreData(this);
+                break;
+            case APPEARANCE:
+                history.restoreAppearance(this);
+                break;
+            case ALL:
+                history.restoreData(this);
+                history.restoreAppearance(this);
+                break;
+            default:
+                throw new AssertionError();
+        }
+        postHistoryRestore();
+        ComponentMetrics.getInstance().onHistoryRestored();
+        commitHistoryEvent(event, HistoryEvent.RESTORE, policy);
+    }
+
+    private void saveHistory(HistoryPolicy policy) {
+        var event = beginHistoryEvent();
+        preHistorySave();
+        ComponentHistory history = getOrRequestHistory();
+        switch (policy) {
+            case DATA:
+                history.saveData(this);
+                break;
+            case APPEARANCE:
+                history.saveAppearance(this);
+                break;
+            case ALL:
+                history.saveData(this);
+                history.saveAppearance(this);
+                break;
+            default:
+                throw new AssertionError();
+        }
+        if (history.isDirty()) {
+            this.historyProvider.persist(history);
+            history.markClean();
+        } else {
+            logger.debug("{} History is not changed. Skipping persisting", this.descriptor.getLogPrefix());
+        }
+        ComponentMetrics.getInstance().onHistorySaved();
+        commitHistoryEvent(event, HistoryEvent.SAVE, policy);
+    }
+
+    /**
+     * Creates and begins the {@link HistoryEvent} if it is enabled in the flight recorder.
+     *
+     * @return the event or {@code null} if it is disabled
+     */
+    private static HistoryEvent beginHistoryEvent() {
+        if (!historyEventType.isEnabled()) {
+            return null;
+        }
+        var event = new HistoryEvent();
+        event.begin();
+        return event;
+    }
+
+    private void commitHistoryEvent(HistoryEvent event, String operation, HistoryPolicy policy) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.setComponent(this.descriptor);
+            event.operation = operation;
+            event.policy = policy.name();
+            event.commit();
+        }
+    }
+
     private ComponentHistory getOrRequestHistory() {
         if (this.history == null) {
             if (this.historyProvider == null) {
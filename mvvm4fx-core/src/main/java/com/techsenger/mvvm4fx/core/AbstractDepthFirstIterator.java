@@ -16,23 +16,65 @@
 
 package com.techsenger.mvvm4fx.core;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.NoSuchElementException;
-import java.util.Stack;
-import javafx.util.Pair;
+import java.util.function.Predicate;
 
 /**
+ * Depth-first iterator that keeps pending nodes and their depths in two parallel arrays used as a stack, so no
+ * objects are allocated per visited node. The children of a returned node are read and filtered only when the
+ * iteration continues, so {@link #skipChildren()} doesn't cost anything for them.
  *
  * @author Pavel Castornii
  */
 abstract class AbstractDepthFirstIterator<T> implements SubtreeIterator<T> {
 
-    private final Stack<Pair<T, Integer>> stack = new Stack<>();
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Object[] nodes = new Object[INITIAL_CAPACITY];
+
+    private int[] depths = new int[INITIAL_CAPACITY];
+
+    private int size;
 
     private int currentDepth = -1;
 
+    /**
+     * The current node whose children haven't been added to the stack yet or {@code null}.
+     */
+    private T unexpanded;
+
+    /**
+     * The number of children of the current node that were added to the stack.
+     */
+    private int pushedCount;
+
+    private final int maxDepth;
+
+    private final Predicate<? super T> filter;
+
     AbstractDepthFirstIterator(T root) {
-        stack.push(new Pair<>(root, 0));
+        this(root, Integer.MAX_VALUE, null);
+    }
+
+    /**
+     * Creates an iterator that doesn't descend deeper than {@code maxDepth} and that excludes the children (together
+     * with their subtrees) for which the filter returns {@code false}. The root is always returned.
+     *
+     * @param root the root of the subtree
+     * @param maxDepth the maximal depth of the returned elements, the root has depth {@code 0}
+     * @param filter the filter for the children or {@code null} if all children are accepted
+     */
+    AbstractDepthFirstIterator(T root, int maxDepth, Predicate<? super T> filter) {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("Max depth can't be negative");
+        }
+        this.maxDepth = maxDepth;
+        this.filter = filter;
+        nodes[0] = root;
+        depths[0] = 0;
+        size = 1;
     }
 
     @Override
@@ -45,7 +87,8 @@ abstract class AbstractDepthFirstIterator<T> implements SubtreeIterator<T> {
 
     @Override
     public boolean hasNext() {
-         return !stack.isEmpty();
+        expand();
+        return size != 0;
     }
 
     @Override
@@ -53,16 +96,63 @@ abstract class AbstractDepthFirstIterator<T> implements SubtreeIterator<T> {
         if (!hasNext()) {
             throw new NoSuchElementException();
         }
-        var pair = stack.pop();
-        T node = pair.getKey();
-        this.currentDepth = pair.getValue();
-        var children = getChildren(node);
-        for (int i = children.size() - 1; i >= 0; i--) {
-            T child =  children.get(i);
-            stack.push(new Pair<>(child, currentDepth + 1));
-        }
+        size--;
+        @SuppressWarnings("unchecked")
+        T node = (T) nodes[size];
+        nodes[size] = null;
+        this.currentDepth = depths[size];
+        this.pushedCount = 0;
+        this.unexpanded = currentDepth < maxDepth ? node : null;
         return node;
     }
 
+    @Override
+    public void skipChildren() {
+        if (currentDepth == -1) {
+            throw new IllegalStateException("next() hasn't been called yet");
+        }
+        if (unexpanded != null) {
+            unexpanded = null;
+            return;
+        }
+        // the children of the current node have been added by hasNext() and are on the top of the stack
+        for (int i = size - pushedCount; i < size; i++) {
+            nodes[i] = null;
+        }
+        size -= pushedCount;
+        pushedCount = 0;
+    }
+
     abstract List<T> getChildren(T parent);
+
+    /**
+     * Adds the accepted children of the current node to the stack.
+     */
+    private void expand() {
+        if (unexpanded == null) {
+            return;
+        }
+        var children = getChildren(unexpanded);
+        unexpanded = null;
+        int childDepth = currentDepth + 1;
+        int childCount = children.size();
+        ensureCapacity(size + childCount);
+        for (int i = childCount - 1; i >= 0; i--) {
+            T child = children.get(i);
+            if (filter == null || filter.test(child)) {
+                nodes[size] = child;
+                depths[size] = childDepth;
+                size++;
+                pushedCount++;
+            }
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > nodes.length) {
+            int newCapacity = Math.max(capacity, nodes.length + (nodes.length >> 1));
+            nodes = Arrays.copyOf(nodes, newCapacity);
+            depths = Arrays.copyOf(depths, newCapacity);
+        }
+    }
 }
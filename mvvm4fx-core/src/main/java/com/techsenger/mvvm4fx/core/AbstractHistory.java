@@ -16,18 +16,49 @@
 
 package com.techsenger.mvvm4fx.core;
 
+import java.util.Objects;
+
 /**
+ * Base class for histories.
+ *
+ * <p>A history can opt into dirty tracking by overriding {@link #isDirtyTracking()} to return {@code true}. In
+ * this case it must assign its fields in the save methods via the {@code track} methods, for example
+ * {@code this.text = track(this.text, viewModel.getText())}, so the history knows whether anything has changed since
+ * it was restored or persisted, and unchanged histories are not written to the storage again. A history without dirty
+ * tracking is always considered dirty.
  *
  * @author Pavel Castornii
  */
 public abstract class AbstractHistory<T extends AbstractComponentViewModel> implements ComponentHistory<T> {
 
+    /**
+     * The value computed for the initial version of the class, so the histories serialized by the previous versions
+     * can still be read.
+     */
+    private static final long serialVersionUID = -7025293033841501697L;
+
     private boolean fresh = true;
 
+    /**
+     * Whether the tracked fields have changed since the history was restored or persisted. It is not serialized, so a
+     * deserialized history is clean.
+     */
+    private transient boolean dirty;
+
     public boolean isFresh() {
         return fresh;
     }
 
+    @Override
+    public boolean isDirty() {
+        return !isDirtyTracking() || dirty;
+    }
+
+    @Override
+    public void markClean() {
+        this.dirty = false;
+    }
+
     @Override
     public void postDeserialize() {
 
@@ -45,7 +76,7 @@ public abstract class AbstractHistory<T extends AbstractComponentViewModel> impl
 
     @Override
     public void saveData(T viewModel) {
-        this.fresh = false;
+        markSaved();
     }
 
     @Override
@@ -55,6 +86,81 @@ public abstract class AbstractHistory<T extends AbstractComponentViewModel> impl
 
     @Override
     public void saveAppearance(T viewModel) {
+        markSaved();
+    }
+
+    /**
+     * Returns whether this history tracks the changes of its fields. The default implementation returns
+     * {@code false}.
+     *
+     * @return {@code true} if the changes are tracked via the {@code track} methods, {@code false} otherwise
+     */
+    protected boolean isDirtyTracking() {
+        return false;
+    }
+
+    /**
+     * Marks the history as dirty, for the changes that can't be tracked via the {@code track} methods.
+     */
+    protected void markDirty() {
+        this.dirty = true;
+    }
+
+    /**
+     * Returns the new value of a field, marking the history as dirty if it differs from the old one. The values are
+     * compared via {@link Object#equals}, so mutable values (for example, lists) must be copied.
+     *
+     * @param oldValue the current value of the field
+     * @param newValue the new value of the field
+     * @return the new value
+     */
+    protected <V> V track(V oldValue, V newValue) {
+        if (!Objects.equals(oldValue, newValue)) {
+            this.dirty = true;
+        }
+        return newValue;
+    }
+
+    protected int track(int oldValue, int newValue) {
+        if (oldValue != newValue) {
+            this.dirty = true;
+        }
+        return newValue;
+    }
+
+    protected long track(long oldValue, long newValue) {
+        if (oldValue != newValue) {
+            this.dirty = true;
+        }
+        return newValue;
+    }
+
+    protected double track(double oldValue, double newValue) {
+        if (Double.compare(oldValue, newValue) != 0) {
+            this.dirty = true;
+        }
+        return newValue;
+    }
+
+    protected boolean track(boolean oldValue, boolean newValue) {
+        if (oldValue != newValue) {
+            this.dirty = true;
+        }
+        return newValue;
+    }
+
+    /**
+     * Marks the history as not fresh after it was decoded by {@link BinaryHistoryCodec}.
+     */
+    void markNotFresh() {
         this.fresh = false;
     }
+
+    private void markSaved() {
+        // a history saved for the first time must be persisted even if its fields have default values
+        if (this.fresh) {
+            this.fresh = false;
+            this.dirty = true;
+        }
+    }
 }
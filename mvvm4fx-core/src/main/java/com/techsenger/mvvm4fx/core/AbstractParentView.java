@@ -16,8 +16,16 @@
 
 package com.techsenger.mvvm4fx.core;
 
-import com.techsenger.toolkit.fx.collections.ListSynchronizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
@@ -31,13 +39,55 @@ public abstract class AbstractParentView<T extends AbstractParentViewModel> exte
 
     private final ObservableList<ChildView<?>> children = FXCollections.observableArrayList();
 
-    private final ListSynchronizer childrenSynchronizer;
+    private final ListChangeListener<ChildView<?>> childParentUpdater = (change) -> {
+        while (change.next()) {
+            if (change.wasAdded()) {
+                change.getAddedSubList().stream().map(e -> (AbstractChildView<?>) e)
+                        .forEach(e -> e.setParent(this));
+            }
+            if (change.wasRemoved()) {
+                change.getRemoved().stream().map(e -> (AbstractChildView<?>) e)
+                        .forEach(e -> e.setParent(null));
+            }
+        }
+    };
+
+    private ComponentRegistry registry;
+
+    /**
+     * The component whose children contain this component. Unlike the parent of a child view, that is set only while
+     * the parent is initialized, it is tracked from the construction, so the registry can be found before the
+     * components are initialized.
+     */
+    private AbstractParentView<?> containingParent;
 
     public AbstractParentView(T viewModel) {
         super(viewModel);
         viewModel.setMediator(createMediator());
-        childrenSynchronizer = new ListSynchronizer<ChildView<?>, ChildViewModel>(children,
-                viewModel.getModifiableChildren(), (v) -> v.getViewModel());
+        // the children of the view model are synchronized with the current view model, as the view model of a pooled
+        // view is replaced when the view is reused
+        children.addListener((ListChangeListener<ChildView<?>>) this::synchronizeChildren);
+        // the added children always take the registry of this component, even if it is null, so they don't keep the
+        // registry of their previous tree
+        children.addListener((ListChangeListener<ChildView<?>>) (change) -> {
+            while (change.next()) {
+                if (change.wasRemoved()) {
+                    for (var child : change.getRemoved()) {
+                        var abstractChild = (AbstractParentView<?>) child;
+                        if (abstractChild.containingParent == this) {
+                            abstractChild.containingParent = null;
+                        }
+                        attachRegistry(child, null);
+                    }
+                }
+                if (change.wasAdded()) {
+                    for (var child : change.getAddedSubList()) {
+                        ((AbstractParentView<?>) child).containingParent = this;
+                        attachRegistry(child, this.registry);
+                    }
+                }
+            }
+        });
     }
 
     @Override
@@ -45,9 +95,41 @@ public abstract class AbstractParentView<T extends AbstractParentViewModel> exte
         return children;
     }
 
+    @Override
+    public ComponentRegistry getRegistry() {
+        if (this.registry == null) {
+            AbstractParentView<?> root = this;
+            while (true) {
+                ParentView<?> next = root.containingParent;
+                if (next == null && root instanceof ChildView) {
+                    next = ((ChildView<?>) root).getParent();
+                }
+                if (next == null) {
+                    break;
+                }
+                root = (AbstractParentView<?>) next;
+            }
+            var rootRegistry = root.registry;
+            if (rootRegistry == null) {
+                rootRegistry = new ComponentRegistry();
+                attachRegistry(root, rootRegistry);
+            }
+            // the parent could have been set without adding this component to the children of the parent
+            if (this.registry == null) {
+                attachRegistry(this, rootRegistry);
+            }
+        }
+        return this.registry;
+    }
+
     @Override
     public SubtreeIterator<ParentView<?>> depthFirstIterator() {
-        return new AbstractDepthFirstIterator<ParentView<?>>(this) {
+        return depthFirstIterator(Integer.MAX_VALUE, null);
+    }
+
+    @Override
+    public SubtreeIterator<ParentView<?>> depthFirstIterator(int maxDepth, Predicate<? super ParentView<?>> filter) {
+        return new AbstractDepthFirstIterator<ParentView<?>>(this, maxDepth, filter) {
 
             @Override
             List<ParentView<?>> getChildren(ParentView<?> parent) {
@@ -58,7 +140,23 @@ public abstract class AbstractParentView<T extends AbstractParentViewModel> exte
 
     @Override
     public SubtreeIterator<ParentView<?>> breadthFirstIterator() {
-        return new AbstractBreadthFirstIterator<ParentView<?>>(this) {
+        return breadthFirstIterator(Integer.MAX_VALUE, null);
+    }
+
+    @Override
+    public SubtreeIterator<ParentView<?>> breadthFirstIterator(int maxDepth, Predicate<? super ParentView<?>> filter) {
+        return new AbstractBreadthFirstIterator<ParentView<?>>(this, maxDepth, filter) {
+
+            @Override
+            List<ParentView<?>> getChildren(ParentView<?> parent) {
+                return (List) parent.getChildren();
+            }
+        };
+    }
+
+    @Override
+    public PostOrderIterator<ParentView<?>> postOrderIterator() {
+        return new AbstractPostOrderIterator<ParentView<?>>(this) {
 
             @Override
             List<ParentView<?>> getChildren(ParentView<?> parent) {
@@ -67,6 +165,67 @@ public abstract class AbstractParentView<T extends AbstractParentViewModel> exte
         };
     }
 
+    @Override
+    public void initializeSubtree() {
+        initializeSubtree(Collections.emptySet());
+    }
+
+    @Override
+    public void initializeSubtree(Runnable attachAction) {
+        var built = new ArrayList<AbstractComponentView<?>>();
+        // the views whose initialization has already been attempted, including the failed ones
+        Set<ParentView<?>> attempted = Collections.newSetFromMap(new IdentityHashMap<>());
+        var pending = new ArrayDeque<ParentView<?>>();
+        pending.push(this);
+        while (!pending.isEmpty()) {
+            var view = pending.pop();
+            if (view != this && isInitializationPending(view)) {
+                continue;
+            }
+            if (view.getViewModel().getDescriptor().getState() == ComponentState.CONSTRUCTED) {
+                var abstractView = (AbstractComponentView<?>) view;
+                attempted.add(view);
+                if (abstractView.initializeBuildPhase()) {
+                    built.add(abstractView);
+                }
+            }
+            pushChildren(pending, view);
+        }
+        if (attachAction != null) {
+            attachAction.run();
+        }
+        for (var view : built) {
+            view.initializeBindPhase();
+        }
+        // the components created in the bind phase are already attached, so they are initialized in usual way
+        initializeSubtree(attempted);
+    }
+
+    @Override
+    public void deinitializeSubtree() {
+        var iterator = postOrderIterator();
+        while (iterator.hasNext()) {
+            var view = iterator.next();
+            var state = view.getViewModel().getDescriptor().getState();
+            if (state == ComponentState.INITIALIZED || state == ComponentState.SUSPENDED) {
+                view.deinitialize();
+            } else if (state == ComponentState.CONSTRUCTED && isInitializationPending(view)) {
+                // the lazily initialized component must not be initialized after its parent is deinitialized
+                view.deinitialize();
+            }
+        }
+    }
+
+    @Override
+    public Stream<ParentView<?>> stream() {
+        return StreamSupport.stream(new SubtreeSpliterator<>(SubtreeSnapshot.of(depthFirstIterator())), false);
+    }
+
+    @Override
+    public Stream<ParentView<?>> parallelStream() {
+        return StreamSupport.stream(new SubtreeSpliterator<>(SubtreeSnapshot.of(depthFirstIterator())), true);
+    }
+
     /**
      * Creates a new {@link ComponentMediator} instance for this component.
      *
@@ -83,20 +242,114 @@ public abstract class AbstractParentView<T extends AbstractParentViewModel> exte
     }
 
     @Override
-    protected void addListeners(T viewModel) {
-        super.addListeners(viewModel);
-        children.addListener((ListChangeListener<ChildView<?>>) (change) -> {
-            while (change.next()) {
-                if (change.wasAdded()) {
-                    change.getAddedSubList().stream().map(e -> (AbstractChildView<?>) e)
-                            .forEach(e -> e.setParent(this));
+    void addInternalListeners() {
+        super.addInternalListeners();
+        children.addListener(childParentUpdater);
+    }
+
+    @Override
+    void removeInternalListeners() {
+        children.removeListener(childParentUpdater);
+        super.removeInternalListeners();
+    }
+
+    @Override
+    void recycle(T viewModel) {
+        if (!children.isEmpty()) {
+            throw new IllegalStateException("Component with children can't be reused");
+        }
+        // the mediator references this view, so it is passed to the new view model
+        viewModel.setMediator(getViewModel().getMediator());
+        attachRegistry(this, null);
+        super.recycle(viewModel);
+    }
+
+    private void synchronizeChildren(ListChangeListener.Change<? extends ChildView<?>> change) {
+        var target = getViewModel().getModifiableChildren();
+        while (change.next()) {
+            int from = change.getFrom();
+            if (change.wasPermutated()) {
+                // a single change of the target instead of one change per moved element
+                var viewModels = new ArrayList<ChildViewModel>(children.size());
+                for (var view : children) {
+                    viewModels.add(view.getViewModel());
                 }
+                target.setAll(viewModels);
+                return;
+            } else {
                 if (change.wasRemoved()) {
-                    change.getRemoved().stream().map(e -> (AbstractChildView<?>) e)
-                            .forEach(e -> e.setParent(null));
+                    target.remove(from, from + change.getRemovedSize());
+                }
+                if (change.wasAdded()) {
+                    var added = new ArrayList<ChildViewModel>(change.getAddedSize());
+                    for (var view : change.getAddedSubList()) {
+                        added.add(view.getViewModel());
+                    }
+                    target.addAll(from, added);
                 }
             }
-        });
+        }
+    }
+
+    /**
+     * Sets the registry for all components of the subtree, unregistering them from their previous registry.
+     *
+     * @param root the root of the subtree
+     * @param registry the new registry or {@code null} if the subtree is removed from the tree
+     */
+    private static void attachRegistry(ParentView<?> root, ComponentRegistry registry) {
+        if (registry == null && ((AbstractParentView<?>) root).registry == null) {
+            // the components of a subtree share one registry, so there is nothing to detach
+            return;
+        }
+        var iterator = root.depthFirstIterator();
+        while (iterator.hasNext()) {
+            var view = (AbstractParentView<?>) iterator.next();
+            if (view.registry == registry) {
+                // the subtree of the component already has this registry
+                iterator.skipChildren();
+                continue;
+            }
+            if (view.registry != null) {
+                view.registry.unregister(view);
+            }
+            view.registry = registry;
+            if (registry != null) {
+                registry.register(view);
+            }
+        }
+    }
+
+    /**
+     * Initializes the constructed components of the subtree except the excluded ones, whose children are still
+     * visited.
+     */
+    private void initializeSubtree(Set<ParentView<?>> excluded) {
+        var pending = new ArrayDeque<ParentView<?>>();
+        pending.push(this);
+        while (!pending.isEmpty()) {
+            var view = pending.pop();
+            if (view != this && isInitializationPending(view)) {
+                // the lazily initialized component and its subtree are initialized when it is displayed
+                continue;
+            }
+            if (view.getViewModel().getDescriptor().getState() == ComponentState.CONSTRUCTED
+                    && !excluded.contains(view)) {
+                view.initialize();
+            }
+            // the children are read only after their parent is initialized, as the parent can create them then
+            pushChildren(pending, view);
+        }
+    }
+
+    private static boolean isInitializationPending(ParentView<?> view) {
+        return ((AbstractComponentView<?>) view).isInitializationPending();
+    }
 
+    private static void pushChildren(Deque<ParentView<?>> pending, ParentView<?> view) {
+        var children = view.getChildren();
+        for (int i = children.size() - 1; i >= 0; i--) {
+            pending.push(children.get(i));
+        }
     }
 }
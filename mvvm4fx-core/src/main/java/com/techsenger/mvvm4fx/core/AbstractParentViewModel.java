@@ -17,7 +17,14 @@
 package com.techsenger.mvvm4fx.core;
 
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 
 /**
@@ -33,8 +40,43 @@ public abstract class AbstractParentViewModel extends AbstractComponentViewModel
 
     private ComponentMediator mediator;
 
+    /**
+     * The parent in whose modifiable children list this component is. Unlike the parent property of the child it is
+     * always in sync with the lists, so it is used for updating the subtree aggregates.
+     */
+    private AbstractParentViewModel aggregateParent;
+
+    private int descendantCount;
+
+    private int maxDepth;
+
+    /**
+     * The number of components in the subtree (including this one) per state ordinal.
+     */
+    private final int[] stateCounts = new int[ComponentState.values().length];
+
     public AbstractParentViewModel() {
         super();
+        stateCounts[getDescriptor().getState().ordinal()] = 1;
+        modifiableChildren.addListener((ListChangeListener<ChildViewModel>) (change) -> {
+            while (change.next()) {
+                if (change.wasRemoved()) {
+                    for (var child : change.getRemoved()) {
+                        var vm = (AbstractParentViewModel) child;
+                        vm.aggregateParent = null;
+                        addSubtreeAggregates(vm, -1);
+                    }
+                }
+                if (change.wasAdded()) {
+                    for (var child : change.getAddedSubList()) {
+                        var vm = (AbstractParentViewModel) child;
+                        vm.aggregateParent = this;
+                        addSubtreeAggregates(vm, 1);
+                    }
+                }
+            }
+            updateMaxDepth();
+        });
     }
 
     @Override
@@ -47,9 +89,34 @@ public abstract class AbstractParentViewModel extends AbstractComponentViewModel
         return children;
     }
 
+    @Override
+    public int getDescendantCount() {
+        return descendantCount;
+    }
+
+    @Override
+    public int getDescendantCount(ComponentState state) {
+        int count = stateCounts[state.ordinal()];
+        if (getDescriptor().getState() == state) {
+            count--;
+        }
+        return count;
+    }
+
+    @Override
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
     @Override
     public SubtreeIterator<ParentViewModel> depthFirstIterator() {
-        return new AbstractDepthFirstIterator<ParentViewModel>(this) {
+        return depthFirstIterator(Integer.MAX_VALUE, null);
+    }
+
+    @Override
+    public SubtreeIterator<ParentViewModel> depthFirstIterator(int maxDepth,
+            Predicate<? super ParentViewModel> filter) {
+        return new AbstractDepthFirstIterator<ParentViewModel>(this, maxDepth, filter) {
 
             @Override
             List<ParentViewModel> getChildren(ParentViewModel parent) {
@@ -60,7 +127,13 @@ public abstract class AbstractParentViewModel extends AbstractComponentViewModel
 
     @Override
     public SubtreeIterator<ParentViewModel> breadthFirstIterator() {
-        return new AbstractBreadthFirstIterator<ParentViewModel>(this) {
+        return breadthFirstIterator(Integer.MAX_VALUE, null);
+    }
+
+    @Override
+    public SubtreeIterator<ParentViewModel> breadthFirstIterator(int maxDepth,
+            Predicate<? super ParentViewModel> filter) {
+        return new AbstractBreadthFirstIterator<ParentViewModel>(this, maxDepth, filter) {
 
             @Override
             List<ParentViewModel> getChildren(ParentViewModel parent) {
@@ -69,6 +142,38 @@ public abstract class AbstractParentViewModel extends AbstractComponentViewModel
         };
     }
 
+    @Override
+    public PostOrderIterator<ParentViewModel> postOrderIterator() {
+        return new AbstractPostOrderIterator<ParentViewModel>(this) {
+
+            @Override
+            List<ParentViewModel> getChildren(ParentViewModel parent) {
+                return (List) parent.getChildren();
+            }
+        };
+    }
+
+    @Override
+    public Stream<ParentViewModel> stream() {
+        return StreamSupport.stream(new SubtreeSpliterator<>(SubtreeSnapshot.of(depthFirstIterator())), false);
+    }
+
+    @Override
+    public Stream<ParentViewModel> parallelStream() {
+        return StreamSupport.stream(new SubtreeSpliterator<>(SubtreeSnapshot.of(depthFirstIterator())), true);
+    }
+
+    @Override
+    public ForkJoinTask<Void> visitInParallel(Consumer<? super ParentViewModel> visitor) {
+        return visitInParallel(visitor, ForkJoinPool.commonPool());
+    }
+
+    @Override
+    public ForkJoinTask<Void> visitInParallel(Consumer<? super ParentViewModel> visitor, ForkJoinPool pool) {
+        var snapshot = SubtreeSnapshot.of(depthFirstIterator());
+        return pool.submit(new SubtreeVisitTask<>(snapshot, visitor, 0, snapshot.size()));
+    }
+
     public void setMediator(ComponentMediator mediator) {
         this.mediator = mediator;
     }
@@ -76,4 +181,44 @@ public abstract class AbstractParentViewModel extends AbstractComponentViewModel
     ObservableList<ChildViewModel> getModifiableChildren() {
         return modifiableChildren;
     }
+
+    @Override
+    void onStateChanged(ComponentState oldState, ComponentState newState) {
+        super.onStateChanged(oldState, newState);
+        for (var vm = this; vm != null; vm = vm.aggregateParent) {
+            vm.stateCounts[oldState.ordinal()]--;
+            vm.stateCounts[newState.ordinal()]++;
+        }
+    }
+
+    /**
+     * Adds (sign is 1) or subtracts (sign is -1) the aggregates of the child subtree to/from this component and all
+     * its ancestors.
+     */
+    private void addSubtreeAggregates(AbstractParentViewModel child, int sign) {
+        int countDelta = sign * (child.descendantCount + 1);
+        for (var vm = this; vm != null; vm = vm.aggregateParent) {
+            vm.descendantCount += countDelta;
+            for (int i = 0; i < stateCounts.length; i++) {
+                vm.stateCounts[i] += sign * child.stateCounts[i];
+            }
+        }
+    }
+
+    /**
+     * Recalculates the max depth of this component and its ancestors, stopping at the first one whose value hasn't
+     * changed.
+     */
+    private void updateMaxDepth() {
+        for (var vm = this; vm != null; vm = vm.aggregateParent) {
+            int depth = 0;
+            for (var child : vm.modifiableChildren) {
+                depth = Math.max(depth, ((AbstractParentViewModel) child).maxDepth + 1);
+            }
+            if (depth == vm.maxDepth) {
+                break;
+            }
+            vm.maxDepth = depth;
+        }
+    }
 }
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.techsenger.mvvm4fx.core;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Depth-first post-order iterator, that returns all children before their parent. The iterator keeps the path from the
+ * root to the current node and the index of the next child of every node on the path in two parallel arrays, so no
+ * objects are allocated per visited node. The depth of a node is its position in the path.
+ *
+ * @author Pavel Castornii
+ */
+abstract class AbstractPostOrderIterator<T> implements PostOrderIterator<T> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Object[] path = new Object[INITIAL_CAPACITY];
+
+    private int[] childIndexes = new int[INITIAL_CAPACITY];
+
+    private int size;
+
+    private int currentDepth = -1;
+
+    AbstractPostOrderIterator(T root) {
+        path[0] = root;
+        size = 1;
+    }
+
+    @Override
+    public int getDepth() {
+        if (currentDepth == -1) {
+            throw new IllegalStateException("next() hasn't been called yet");
+        }
+        return currentDepth;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return size != 0;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        while (true) {
+            int top = size - 1;
+            @SuppressWarnings("unchecked")
+            T node = (T) path[top];
+            var children = getChildren(node);
+            int childIndex = childIndexes[top];
+            if (childIndex < children.size()) {
+                childIndexes[top] = childIndex + 1;
+                if (size == path.length) {
+                    int newCapacity = size + (size >> 1);
+                    path = Arrays.copyOf(path, newCapacity);
+                    childIndexes = Arrays.copyOf(childIndexes, newCapacity);
+                }
+                path[size] = children.get(childIndex);
+                childIndexes[size] = 0;
+                size++;
+            } else {
+                path[top] = null;
+                size = top;
+                currentDepth = top;
+                return node;
+            }
+        }
+    }
+
+    abstract List<T> getChildren(T parent);
+}
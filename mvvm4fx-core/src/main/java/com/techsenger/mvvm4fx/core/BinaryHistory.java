@@ -0,0 +1,66 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.mvvm4fx.core;
+
+import java.io.IOException;
+
+/**
+ * A history that can be encoded by {@link BinaryHistoryCodec}. Instead of relying on the Java serialization, the
+ * history writes and reads its fields explicitly, in the same order, which gives much smaller payloads and much faster
+ * encoding and decoding. The version makes it possible to read the histories written by the previous versions of the
+ * class.
+ *
+ * @author Pavel Castornii
+ */
+public interface BinaryHistory {
+
+    /**
+     * Returns the version of the binary format of this history, it is written before the fields.
+     *
+     * @return the format version
+     */
+    default int getBinaryVersion() {
+        return 1;
+    }
+
+    /**
+     * Writes the fields of the history.
+     *
+     * @param writer the writer
+     */
+    void writeFields(HistoryWriter writer);
+
+    /**
+     * Reads the fields of the history in the same order they were written.
+     *
+     * @param reader the reader
+     * @param version the format version the fields were written with
+     * @throws IOException if the data is malformed
+     */
+    void readFields(HistoryReader reader, int version) throws IOException;
+
+    /**
+     * Restores the freshness of the history (see {@link ComponentHistory#isFresh()}) after its fields were read. The
+     * freshness of the histories that extend {@link AbstractHistory} is restored by the codec, other histories that
+     * track freshness must override this method. The default implementation does nothing.
+     *
+     * @param fresh whether the history was fresh when it was encoded
+     */
+    default void restoreFresh(boolean fresh) {
+
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.mvvm4fx.core;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Codec that encodes {@link BinaryHistory} histories with {@link HistoryWriter}. A record consists of a format byte,
+ * the history type, the version, the freshness flag and the fields written by the history. The histories that don't
+ * implement {@link BinaryHistory} are encoded via the Java serialization, so the codec can be used for all histories
+ * and the histories can be migrated one by one.
+ *
+ * <p>The history type is the class name unless a factory was registered for the class with a shorter type id. Without
+ * a factory, the class must be public and have a public no-argument constructor. The data that starts with the header
+ * of the Java serialization stream is decoded via the Java serialization, so the histories written by
+ * {@link SerializationHistoryCodec} can still be read.
+ *
+ * @author Pavel Castornii
+ */
+public class BinaryHistoryCodec implements HistoryCodec {
+
+    private static final byte BINARY_FORMAT = 'B';
+
+    private static final byte SERIALIZATION_FORMAT = 'S';
+
+    /**
+     * The first bytes of the Java serialization stream, the histories encoded by {@link SerializationHistoryCodec}
+     * before switching to this codec start with them.
+     */
+    private static final byte STREAM_MAGIC_FIRST = (byte) 0xAC;
+
+    private static final byte STREAM_MAGIC_SECOND = (byte) 0xED;
+
+    private final HistoryCodec fallbackCodec = new SerializationHistoryCodec();
+
+    private final Map<Class<?>, String> typeIdsByClass = new ConcurrentHashMap<>();
+
+    private final Map<String, Supplier<? extends BinaryHistory>> factoriesByTypeId = new ConcurrentHashMap<>();
+
+    /**
+     * Registers the factory of the histories of the specified class.
+     *
+     * @param type the history class
+     * @param typeId the short id written instead of the class name
+     * @param factory the factory that creates empty histories
+     */
+    public <T extends BinaryHistory> void register(Class<T> type, String typeId, Supplier<T> factory) {
+        typeIdsByClass.put(type, typeId);
+        factoriesByTypeId.put(typeId, factory);
+    }
+
+    @Override
+    public byte[] encode(ComponentHistory<?> history) throws IOException {
+        if (!(history instanceof BinaryHistory)) {
+            var data = fallbackCodec.encode(history);
+            var bytes = new byte[data.length + 1];
+            bytes[0] = SERIALIZATION_FORMAT;
+            System.arraycopy(data, 0, bytes, 1, data.length);
+            return bytes;
+        }
+        history.preSerialize();
+        var binaryHistory = (BinaryHistory) history;
+        var writer = new HistoryWriter(64);
+        writer.writeByte(BINARY_FORMAT);
+        var typeId = typeIdsByClass.get(history.getClass());
+        writer.writeString(typeId != null ? typeId : history.getClass().getName());
+        writer.writeUnsignedVarInt(binaryHistory.getBinaryVersion());
+        writer.writeBoolean(history.isFresh());
+        binaryHistory.writeFields(writer);
+        return writer.toByteArray();
+    }
+
+    @Override
+    public ComponentHistory<?> decode(byte[] data) throws IOException {
+        if (data.length == 0) {
+            throw new IOException("Empty history data");
+        }
+        if (data.length > 1 && data[0] == STREAM_MAGIC_FIRST && data[1] == STREAM_MAGIC_SECOND) {
+            return fallbackCodec.decode(data);
+        }
+        if (data[0] == SERIALIZATION_FORMAT) {
+            var bytes = new byte[data.length - 1];
+            System.arraycopy(data, 1, bytes, 0, bytes.length);
+            return fallbackCodec.decode(bytes);
+        }
+        if (data[0] != BINARY_FORMAT) {
+            throw new IOException("Unknown history format " + data[0]);
+        }
+        var reader = new HistoryReader(data, 1);
+        var typeId = reader.readString();
+        int version = reader.readUnsignedVarInt();
+        boolean fresh = reader.readBoolean();
+        var binaryHistory = createHistory(typeId);
+        if (!(binaryHistory instanceof ComponentHistory)) {
+            throw new IOException("Type " + typeId + " is not a history");
+        }
+        binaryHistory.readFields(reader, version);
+        var history = (ComponentHistory<?>) binaryHistory;
+        if (!fresh && history instanceof AbstractHistory) {
+            ((AbstractHistory<?>) history).markNotFresh();
+        }
+        binaryHistory.restoreFresh(fresh);
+        history.postDeserialize();
+        return history;
+    }
+
+    private BinaryHistory createHistory(String typeId) throws IOException {
+        if (typeId == null) {
+            throw new IOException("No history type");
+        }
+        var factory = factoriesByTypeId.get(typeId);
+        if (factory != null) {
+            return factory.get();
+        }
+        try {
+            var classLoader = Thread.currentThread().getContextClassLoader();
+            if (classLoader == null) {
+                classLoader = BinaryHistoryCodec.class.getClassLoader();
+            }
+            // the class is not initialized until it is known to be a history, so the data can't run static initializers
+            // of arbitrary classes
+            var type = Class.forName(typeId, false, classLoader);
+            if (!BinaryHistory.class.isAssignableFrom(type) || !ComponentHistory.class.isAssignableFrom(type)) {
+                throw new IOException("Type " + typeId + " is not a binary history");
+            }
+            return (BinaryHistory) type.getConstructor().newInstance();
+        } catch (ReflectiveOperationException ex) {
+            throw new IOException("Error creating history of type " + typeId, ex);
+        }
+    }
+}
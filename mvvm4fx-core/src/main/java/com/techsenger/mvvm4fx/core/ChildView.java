@@ -17,6 +17,7 @@
 package com.techsenger.mvvm4fx.core;
 
 import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.value.ObservableValue;
 
 /**
  * Nested component is any component.
@@ -40,6 +41,27 @@ public interface ChildView<T extends ChildViewModel> extends ParentView<T> {
      */
     ParentView<?> getParent();
 
+    /**
+     * Initializes the component lazily, when its node is displayed for the first time (for example, when a tab is
+     * selected or a titled pane is expanded). Until then the component stays in {@link ComponentState#CONSTRUCTED}
+     * state, so components that are never displayed are never built. If the node is already displayed, the component
+     * is initialized immediately.
+     */
+    void initializeLazily();
+
+    /**
+     * Initializes the component when the condition becomes {@code true} for the first time. Until then the component
+     * stays in {@link ComponentState#CONSTRUCTED} state. If the condition is already {@code true}, the component
+     * is initialized immediately. If the component is deinitialized before the condition becomes {@code true}, the
+     * listener is removed from the condition, the component goes to {@link ComponentState#DEINITIALIZED} state without
+     * being built and is never initialized. If the component is initialized
+     * explicitly, or this method is called again, the previous condition is no longer observed.
+     *
+     * @param condition the condition, for example, the selected property of a tab
+     * @throws IllegalStateException if the component is not in {@link ComponentState#CONSTRUCTED} state
+     */
+    void initializeWhen(ObservableValue<Boolean> condition);
+
     /**
      * Requests focus. Child component implements this method via selecting FX node that will request focus.
      */
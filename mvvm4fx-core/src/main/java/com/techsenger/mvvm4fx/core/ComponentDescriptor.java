@@ -16,7 +16,10 @@
 
 package com.techsenger.mvvm4fx.core;
 
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.beans.property.ReadOnlyObjectWrapper;
@@ -30,12 +33,21 @@ import javafx.beans.property.SimpleObjectProperty;
  * contains no business logic or behavior. All behavioral aspects (history management, component interactions)
  * are handled separately by the component's ViewModel and other behavioral contracts.
  *
+ * <p>As every component has a descriptor, the descriptor is kept compact: the state and the history policy are stored
+ * in plain fields, while their observable properties and the formatted names are created only when first requested.
+ *
  * @author Pavel Castornii
  */
 public class ComponentDescriptor {
 
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
     private static String logDelimiter = " ::";
 
+    private static volatile ComponentIdGenerator idGenerator = ComponentIdGenerator.RANDOM;
+
+    private static final Map<ComponentName, ComponentIdGenerator> idGeneratorsByName = new ConcurrentHashMap<>();
+
     public static String getLogDelimiter() {
         return logDelimiter;
     }
@@ -44,30 +56,101 @@ public class ComponentDescriptor {
         ComponentDescriptor.logDelimiter = logDelimiter;
     }
 
+    /**
+     * Returns the global id generator.
+     *
+     * @return the id generator
+     */
+    public static ComponentIdGenerator getIdGenerator() {
+        return idGenerator;
+    }
+
+    /**
+     * Sets the global id generator that is used for the component names without their own generator.
+     *
+     * @param generator the id generator
+     */
+    public static void setIdGenerator(ComponentIdGenerator generator) {
+        ComponentDescriptor.idGenerator = Objects.requireNonNull(generator);
+    }
+
+    /**
+     * Sets the id generator for the components with the specified name.
+     *
+     * @param name the component name
+     * @param generator the id generator or {@code null} to use the global one
+     */
+    public static void setIdGenerator(ComponentName name, ComponentIdGenerator generator) {
+        if (generator == null) {
+            idGeneratorsByName.remove(name);
+        } else {
+            idGeneratorsByName.put(name, generator);
+        }
+    }
+
+    private static ComponentIdGenerator resolveIdGenerator(ComponentName name) {
+        if (!idGeneratorsByName.isEmpty()) {
+            var generator = idGeneratorsByName.get(name);
+            if (generator != null) {
+                return generator;
+            }
+        }
+        return idGenerator;
+    }
+
+    /**
+     * The most significant bits of the UUIDs derived from the ids, they are random per application session, so the
+     * derived UUIDs don't repeat between sessions. They are taken from a version 4 UUID, so they contain its version.
+     */
+    private static final class SessionBitsHolder {
+
+        private static final long BITS = UUID.randomUUID().getMostSignificantBits();
+    }
+
     private final ComponentName name;
 
-    private final UUID uuid;
+    private final long id;
+
+    /**
+     * The UUID is either passed to the constructor or derived from the id on the first request.
+     */
+    private UUID uuid;
+
+    /**
+     * The full name and the log prefix are created on the first request.
+     */
+    private String fullName;
+
+    private String logPrefix;
+
+    private ComponentState state = ComponentState.UNCONSTRUCTED;
 
-    private final String fullName;
+    /**
+     * The observable state, it is created on the first request of {@link #stateProperty()}.
+     */
+    private ReadOnlyObjectWrapper<ComponentState> stateWrapper;
 
-    private final String logPrefix;
+    /**
+     * The view model that is notified about the state changes directly, before the listeners of the state property.
+     */
+    private AbstractComponentViewModel viewModel;
 
-    private final ReadOnlyObjectWrapper<ComponentState> state =
-            new ReadOnlyObjectWrapper<>(ComponentState.UNCONSTRUCTED);
+    private HistoryPolicy historyPolicy = HistoryPolicy.NONE;
 
-    private final ObjectProperty<HistoryPolicy> historyPolicy = new SimpleObjectProperty<>(HistoryPolicy.NONE);
+    /**
+     * The observable history policy, it is created on the first request of {@link #historyPolicyProperty()}.
+     */
+    private ObjectProperty<HistoryPolicy> historyPolicyProperty;
 
     public ComponentDescriptor(ComponentName name) {
-        this(name, UUID.randomUUID());
+        this.name = name;
+        this.id = resolveIdGenerator(name).generate(name);
     }
 
     public ComponentDescriptor(ComponentName name, UUID uuid) {
         this.name = name;
+        this.id = uuid.getLeastSignificantBits();
         this.uuid = uuid;
-        long least32bits = uuid.getLeastSignificantBits() & 0xFFFFFFFFL;
-        String shortUuid = String.format("%08X", least32bits);
-        this.fullName = name.getText() + "@" + shortUuid;
-        this.logPrefix = resolveLogPrefix(fullName);
     }
 
     /**
@@ -80,21 +163,38 @@ public class ComponentDescriptor {
     }
 
     /**
-     * Returns the unique {@link UUID} of this component instance.
+     * Returns the id of this component instance generated by the {@link ComponentIdGenerator}. If the descriptor was
+     * created with a UUID, the id is the least significant bits of the UUID.
+     *
+     * @return the component instance id
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Returns the unique {@link UUID} of this component instance. Unless the UUID was passed to the constructor, it is
+     * created from the id on the first request.
      *
      * @return the component instance UUID
      */
     public UUID getUuid() {
+        if (uuid == null) {
+            uuid = new UUID(SessionBitsHolder.BITS, id);
+        }
         return uuid;
     }
 
     /**
-     * Returns a human-readable identifier that combines the component type and its UUID. For example:
-     * {@code TextEditorTab#A0A0A0A0}.
+     * Returns a human-readable identifier that combines the component type and the lower 32 bits of its id. For
+     * example: {@code TextEditorTab#A0A0A0A0}.
      *
      * @return the full name of this component instance
      */
     public String getFullName() {
+        if (fullName == null) {
+            fullName = name.getText() + "@" + toHex((int) id);
+        }
         return fullName;
     }
 
@@ -105,6 +205,9 @@ public class ComponentDescriptor {
      * @return the prefix with full name followed by a separator for log messages
      */
     public String getLogPrefix() {
+        if (logPrefix == null) {
+            logPrefix = resolveLogPrefix(getFullName());
+        }
         return logPrefix;
     }
 
@@ -113,7 +216,7 @@ public class ComponentDescriptor {
      * @return
      */
     public ComponentState getState() {
-        return this.state.get();
+        return this.state;
     }
 
     /**
@@ -122,7 +225,10 @@ public class ComponentDescriptor {
      * @return
      */
     public ReadOnlyObjectProperty<ComponentState> stateProperty() {
-        return state.getReadOnlyProperty();
+        if (stateWrapper == null) {
+            stateWrapper = new ReadOnlyObjectWrapper<>(state);
+        }
+        return stateWrapper.getReadOnlyProperty();
     }
 
     /**
@@ -131,7 +237,10 @@ public class ComponentDescriptor {
      * @return
      */
     public ObjectProperty<HistoryPolicy> historyPolicyProperty() {
-        return historyPolicy;
+        if (historyPolicyProperty == null) {
+            historyPolicyProperty = new SimpleObjectProperty<>(historyPolicy);
+        }
+        return historyPolicyProperty;
     }
 
     /**
@@ -140,7 +249,7 @@ public class ComponentDescriptor {
      * @return
      */
     public HistoryPolicy getHistoryPolicy() {
-        return historyPolicy.get();
+        return historyPolicyProperty == null ? historyPolicy : historyPolicyProperty.get();
     }
 
     /**
@@ -149,14 +258,48 @@ public class ComponentDescriptor {
      * @param policy the history policy to set.
      */
     public void setHistoryPolicy(HistoryPolicy policy) {
-        historyPolicy.set(policy);
+        if (historyPolicyProperty == null) {
+            historyPolicy = policy;
+        } else {
+            historyPolicyProperty.set(policy);
+        }
     }
 
     protected String resolveLogPrefix(String fullName) {
         return fullName + logDelimiter;
     }
 
-    ReadOnlyObjectWrapper<ComponentState> stateWrapper() {
-        return state;
+    /**
+     * Sets the state of the component. The view model is notified first, so it processes the change (for example,
+     * restores the history) before the listeners of {@link #stateProperty()} are called.
+     */
+    void setState(ComponentState state) {
+        var oldState = this.state;
+        if (oldState == state) {
+            return;
+        }
+        this.state = state;
+        if (this.viewModel != null) {
+            this.viewModel.handleStateChange(oldState, state);
+        }
+        if (this.stateWrapper != null) {
+            this.stateWrapper.set(state);
+        }
+    }
+
+    void setViewModel(AbstractComponentViewModel viewModel) {
+        this.viewModel = viewModel;
+    }
+
+    /**
+     * Returns the eight upper-case hex digits of the value, it is much cheaper than {@code String.format("%08X")}.
+     */
+    private static String toHex(int value) {
+        var chars = new char[8];
+        for (int i = chars.length - 1; i >= 0; i--) {
+            chars[i] = HEX_DIGITS[value & 0xF];
+            value >>>= 4;
+        }
+        return new String(chars);
     }
 }
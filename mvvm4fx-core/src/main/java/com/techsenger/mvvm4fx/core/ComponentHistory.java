@@ -54,6 +54,25 @@ public interface ComponentHistory<T extends ComponentViewModel> extends Serializ
      */
     boolean isFresh();
 
+    /**
+     * Returns whether the history has changed since it was restored or persisted last time. A clean history is not
+     * passed to {@link HistoryProvider#persist} when the component is deinitialized. The default implementation
+     * returns {@code true}, so the history is always persisted.
+     *
+     * @return {@code true} if the history must be persisted, {@code false} otherwise
+     */
+    default boolean isDirty() {
+        return true;
+    }
+
+    /**
+     * Marks the history as clean. It is called by the framework after the history has been passed to
+     * {@link HistoryProvider#persist}. The default implementation does nothing.
+     */
+    default void markClean() {
+
+    }
+
     /**
      * Method called before the component is serialized. This can be used to prepare the object's state
      * before saving it in a binary format.
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.mvvm4fx.core;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generates the ids of the components. The id is a compact {@code long} value that is unique within the application
+ * session, the {@link java.util.UUID} of the component is derived from it only when it is requested. The generator
+ * can be set globally or per {@link ComponentName} via {@link ComponentDescriptor#setIdGenerator}.
+ *
+ * @author Pavel Castornii
+ */
+@FunctionalInterface
+public interface ComponentIdGenerator {
+
+    /**
+     * Generates sequential ids starting from {@code 1}. It is the fastest generator, but the UUIDs derived from its
+     * ids are not RFC 4122 ones and the full names of the components depend on the order of their creation.
+     */
+    ComponentIdGenerator SEQUENTIAL = new SequentialIdGenerator();
+
+    /**
+     * Generates random ids with the IETF variant bits set, so the UUIDs derived from them are version 4 ones. Unlike
+     * {@link java.util.UUID#randomUUID()}, it doesn't use {@code SecureRandom}, so it never blocks. It is the default
+     * generator.
+     */
+    ComponentIdGenerator RANDOM = (name) -> (ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL)
+            | 0x8000000000000000L;
+
+    /**
+     * Generates the id for a new component.
+     *
+     * @param name the name of the component
+     * @return the id of the component
+     */
+    long generate(ComponentName name);
+}
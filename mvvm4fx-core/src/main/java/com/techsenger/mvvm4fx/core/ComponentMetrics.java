@@ -0,0 +1,232 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.mvvm4fx.core;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Keeps the live component counts and lifecycle counters of the application. The counters are always maintained, as
+ * they cost one map lookup per state change, and they can be exposed via JMX by {@link #register()}, so it is
+ * possible to see in JConsole whether the number of components grows without bound.
+ *
+ * @author Pavel Castornii
+ */
+public final class ComponentMetrics implements ComponentMetricsMXBean {
+
+    /**
+     * The name under which the MBean is registered.
+     */
+    public static final String OBJECT_NAME = "com.techsenger.mvvm4fx:type=ComponentMetrics";
+
+    private static final ComponentMetrics instance = new ComponentMetrics();
+
+    private static final ComponentState[] liveStates = {ComponentState.CONSTRUCTED, ComponentState.INITIALIZED,
+            ComponentState.SUSPENDED};
+
+    /**
+     * Returns the metrics of the application.
+     *
+     * @return the metrics
+     */
+    public static ComponentMetrics getInstance() {
+        return instance;
+    }
+
+    /**
+     * The number of the components per name and per state, indexed by the state ordinal.
+     */
+    private final Map<ComponentName, AtomicLongArray> countsByName = new ConcurrentHashMap<>();
+
+    private final LongAdder constructedCount = new LongAdder();
+
+    private final LongAdder deinitializedCount = new LongAdder();
+
+    private final LongAdder historyRestoreCount = new LongAdder();
+
+    private final LongAdder historySaveCount = new LongAdder();
+
+    private ComponentMetrics() {
+
+    }
+
+    /**
+     * Registers the metrics in the platform MBean server under {@link #OBJECT_NAME}.
+     */
+    public synchronized void register() {
+        try {
+            var server = ManagementFactory.getPlatformMBeanServer();
+            var name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(this, name);
+            }
+        } catch (JMException ex) {
+            throw new IllegalStateException("Error registering component metrics", ex);
+        }
+    }
+
+    /**
+     * Unregisters the metrics from the platform MBean server.
+     */
+    public synchronized void unregister() {
+        try {
+            var server = ManagementFactory.getPlatformMBeanServer();
+            var name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException ex) {
+            throw new IllegalStateException("Error unregistering component metrics", ex);
+        }
+    }
+
+    /**
+     * Returns the number of live components with the specified name.
+     *
+     * @param name the component name
+     * @return the number of live components
+     */
+    public long getLiveCount(ComponentName name) {
+        var counts = countsByName.get(name);
+        return counts == null ? 0 : getLiveCount(counts);
+    }
+
+    /**
+     * Returns the number of the components with the specified name that are in the specified state. For
+     * {@link ComponentState#DEINITIALIZED} the total number of deinitialized components is returned.
+     *
+     * @param name the component name
+     * @param state the component state
+     * @return the number of components
+     */
+    public long getCount(ComponentName name, ComponentState state) {
+        var counts = countsByName.get(name);
+        return counts == null ? 0 : counts.get(state.ordinal());
+    }
+
+    @Override
+    public long getLiveCount() {
+        long count = 0;
+        for (var counts : countsByName.values()) {
+            count += getLiveCount(counts);
+        }
+        return count;
+    }
+
+    @Override
+    public Map<String, Long> getLiveCountsByName() {
+        var result = new TreeMap<String, Long>();
+        for (var entry : countsByName.entrySet()) {
+            result.merge(entry.getKey().getText(), getLiveCount(entry.getValue()), Long::sum);
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getLiveCountsByState() {
+        var result = new LinkedHashMap<String, Long>();
+        for (var state : liveStates) {
+            long count = 0;
+            for (var counts : countsByName.values()) {
+                count += counts.get(state.ordinal());
+            }
+            result.put(state.name(), count);
+        }
+        return result;
+    }
+
+    @Override
+    public long getConstructedCount() {
+        return constructedCount.sum();
+    }
+
+    @Override
+    public long getDeinitializedCount() {
+        return deinitializedCount.sum();
+    }
+
+    @Override
+    public long getHistoryRestoreCount() {
+        return historyRestoreCount.sum();
+    }
+
+    @Override
+    public long getHistorySaveCount() {
+        return historySaveCount.sum();
+    }
+
+    @Override
+    public Map<String, Double> getMeanPhaseDurations() {
+        var result = new TreeMap<String, Double>();
+        for (var name : LifecycleMetrics.getComponentNames()) {
+            for (var phase : LifecyclePhase.values()) {
+                var histogram = LifecycleMetrics.getHistogram(name, phase);
+                if (histogram != null && histogram.getCount() != 0) {
+                    result.put(name.getText() + "." + phase.name(), histogram.getMeanNanos() / 1000.0);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean isTimingEnabled() {
+        return LifecycleMetrics.isEnabled();
+    }
+
+    @Override
+    public void setTimingEnabled(boolean enabled) {
+        LifecycleMetrics.setEnabled(enabled);
+    }
+
+    void onStateChanged(ComponentName name, ComponentState oldState, ComponentState newState) {
+        var counts = countsByName.computeIfAbsent(name, (n) -> new AtomicLongArray(ComponentState.values().length));
+        // the components are never counted in the initial state
+        if (oldState != ComponentState.UNCONSTRUCTED) {
+            counts.decrementAndGet(oldState.ordinal());
+        }
+        counts.incrementAndGet(newState.ordinal());
+        if (newState == ComponentState.CONSTRUCTED) {
+            constructedCount.increment();
+        } else if (newState == ComponentState.DEINITIALIZED) {
+            deinitializedCount.increment();
+        }
+    }
+
+    void onHistoryRestored() {
+        historyRestoreCount.increment();
+    }
+
+    void onHistorySaved() {
+        historySaveCount.increment();
+    }
+
+    private long getLiveCount(AtomicLongArray counts) {
+        long count = 0;
+        for (var state : liveStates) {
+            count += counts.get(state.ordinal());
+        }
+        return count;
+    }
+}
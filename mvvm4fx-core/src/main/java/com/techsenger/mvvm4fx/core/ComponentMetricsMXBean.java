@@ -0,0 +1,99 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.mvvm4fx.core;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link ComponentMetrics}. The maps are keyed by the text of the {@link ComponentName}.
+ *
+ * @author Pavel Castornii
+ */
+public interface ComponentMetricsMXBean {
+
+    /**
+     * Returns the number of the components that are constructed but not deinitialized yet.
+     *
+     * @return the number of live components
+     */
+    long getLiveCount();
+
+    /**
+     * Returns the number of live components per component name.
+     *
+     * @return the map of the component name text to the number of live components
+     */
+    Map<String, Long> getLiveCountsByName();
+
+    /**
+     * Returns the number of live components per state, that is {@link ComponentState#CONSTRUCTED},
+     * {@link ComponentState#INITIALIZED} and {@link ComponentState#SUSPENDED}.
+     *
+     * @return the map of the state name to the number of components
+     */
+    Map<String, Long> getLiveCountsByState();
+
+    /**
+     * Returns the total number of the components that have been constructed.
+     *
+     * @return the number of constructed components
+     */
+    long getConstructedCount();
+
+    /**
+     * Returns the total number of the components that have been deinitialized.
+     *
+     * @return the number of deinitialized components
+     */
+    long getDeinitializedCount();
+
+    /**
+     * Returns the total number of history restorations.
+     *
+     * @return the number of history restorations
+     */
+    long getHistoryRestoreCount();
+
+    /**
+     * Returns the total number of history savings.
+     *
+     * @return the number of history savings
+     */
+    long getHistorySaveCount();
+
+    /**
+     * Returns the mean durations of the lifecycle phases recorded by {@link LifecycleMetrics}. The keys have
+     * the format {@code <component name>.<phase>}.
+     *
+     * @return the map of the phase key to the mean duration in microseconds
+     */
+    Map<String, Double> getMeanPhaseDurations();
+
+    /**
+     * Returns whether the durations of the lifecycle phases are collected.
+     *
+     * @return {@code true} if the durations are collected, {@code false} otherwise
+     */
+    boolean isTimingEnabled();
+
+    /**
+     * Enables or disables collecting the durations of the lifecycle phases.
+     *
+     * @param enabled {@code true} to collect the durations
+     */
+    void setTimingEnabled(boolean enabled);
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.techsenger.mvvm4fx.core;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A pool of views keyed by {@link ComponentName} that makes it possible to reuse the built nodes of frequently
+ * created components (dialogs, cell-like components etc). A view released to the pool is deinitialized without
+ * unbuilding, and when it is acquired it gets a new view model and becomes {@link ComponentState#CONSTRUCTED} again,
+ * so its initialization skips {@link AbstractComponentView#build} and calls
+ * {@link AbstractComponentView#rebuild} instead.
+ *
+ * <p>Every component name has a maximum number of idle views. When a view is released to a full pool, the least
+ * recently released view of the same name is evicted and unbuilt. Example of usage:
+ *
+ * <pre>
+ * DialogView view = pool.acquire(dialogViewModel);
+ * if (view == null) {
+ *     view = new DialogView(dialogViewModel);
+ * }
+ * view.initialize();
+ * ...
+ * pool.release(view); // instead of view.deinitialize()
+ * </pre>
+ *
+ * <p>The pool must be used in the FX thread.
+ *
+ * @author Pavel Castornii
+ */
+public class ComponentPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComponentPool.class);
+
+    private final Map<ComponentName, Deque<AbstractComponentView<?>>> viewsByName = new HashMap<>();
+
+    private final Map<ComponentName, Integer> maxSizes = new HashMap<>();
+
+    private final int defaultMaxSize;
+
+    /**
+     * Creates a pool.
+     *
+     * @param defaultMaxSize the maximum number of idle views per component name
+     */
+    public ComponentPool(int defaultMaxSize) {
+        if (defaultMaxSize < 0) {
+            throw new IllegalArgumentException("Max size can't be negative");
+        }
+        this.defaultMaxSize = defaultMaxSize;
+    }
+
+    /**
+     * Returns an idle view for the component name of the view model, or {@code null} if there is no such view. The
+     * returned view has the specified view model and is in {@link ComponentState#CONSTRUCTED} state.
+     *
+     * @param viewModel the new view model in {@link ComponentState#UNCONSTRUCTED} state
+     * @return the reused view or {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends AbstractComponentViewModel, V extends AbstractComponentView<T>> V acquire(T viewModel) {
+        var views = viewsByName.get(viewModel.getDescriptor().getName());
+        if (views == null || views.isEmpty()) {
+            return null;
+        }
+        // the most recently released view is taken, so the least recently used ones are evicted first
+        var view = (V) views.pollLast();
+        view.recycle(viewModel);
+        return view;
+    }
+
+    /**
+     * Deinitializes the view keeping its built nodes and puts it to the pool. The view must be initialized, must
+     * not be a child of another component and must not have children. If there are already the maximum number of
+     * idle views for the component name, the least recently released one is evicted.
+     *
+     * @param view the view to release
+     */
+    public void release(AbstractComponentView<?> view) {
+        var descriptor = view.getViewModel().getDescriptor();
+        if (view instanceof ChildView && ((ChildView<?>) view).getParent() != null) {
+            throw new IllegalStateException("Component with a parent can't be released to the pool");
+        }
+        // the children would stay initialized and attached to the view that is reused with another view model
+        if (view instanceof ParentView && !((ParentView<?>) view).getChildren().isEmpty()) {
+            throw new IllegalStateException("Component with children can't be released to the pool");
+        }
+        view.deinitialize(false);
+        if (descriptor.getState() != ComponentState.DEINITIALIZED) {
+            // deinitialization failed, the view can't be reused
+            view.unbuildRecycled();
+            return;
+        }
+        int maxSize = getMaxSize(descriptor.getName());
+        if (maxSize == 0) {
+            view.unbuildRecycled();
+            return;
+        }
+        var views = viewsByName.computeIfAbsent(descriptor.getName(), (n) -> new ArrayDeque<>());
+        while (views.size() >= maxSize) {
+            evict(views.pollFirst());
+        }
+        views.addLast(view);
+    }
+
+    /**
+     * Returns the maximum number of idle views for the component name.
+     *
+     * @param name the component name
+     * @return the maximum number of idle views
+     */
+    public int getMaxSize(ComponentName name) {
+        return maxSizes.getOrDefault(name, defaultMaxSize);
+    }
+
+    /**
+     * Sets the maximum number of idle views for the component name, evicting the excess views.
+     *
+     * @param name the component name
+     * @param maxSize the maximum number of idle views
+     */
+    public void setMaxSize(ComponentName name, int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Max size can't be negative");
+        }
+        maxSizes.put(name, maxSize);
+        var views = viewsByName.get(name);
+        if (views != null) {
+            while (views.size() > maxSize) {
+                evict(views.pollFirst());
+            }
+        }
+    }
+
+    /**
+     * Returns the number of idle views for the component name.
+     *
+     * @param name the component name
+     * @return the number of idle views
+     */
+    public int size(ComponentName name) {
+        var views = viewsByName.get(name);
+        return views == null ? 0 : views.size();
+    }
+
+    /**
+     * Evicts and unbuilds all idle views.
+     */
+    public void clear() {
+        for (var views : viewsByName.values()) {
+            while (!views.isEmpty()) {
+                evict(views.pollFirst());
+            }
+        }
+        viewsByName.clear();
+    }
+
+    private void evict(AbstractComponentView<?> view) {
+        logger.debug("{} Evicting view from pool", view.getViewModel().getDescriptor().getLogPrefix());
+        view.unbuildRecycled();
+    }
+}
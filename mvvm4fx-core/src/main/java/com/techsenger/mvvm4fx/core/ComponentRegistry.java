@@ -0,0 +1,103 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.techsenger.mvvm4fx.core;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A registry of all components of one component tree that provides fast lookup by {@link UUID} and by
+ * {@link ComponentName}. The registry is maintained incrementally: components are registered and unregistered when
+ * they are added to or removed from {@link ParentView#getChildren()} of a component of the tree, so no tree scans are
+ * required for lookups.
+ *
+ * <p>The registry of a tree is obtained via {@link ParentView#getRegistry()}. Like the component tree itself, the
+ * registry must be accessed only in the thread that modifies the tree (usually the FX thread).
+ *
+ * @author Pavel Castornii
+ */
+public class ComponentRegistry {
+
+    private final Map<UUID, ParentView<?>> viewsByUuid = new HashMap<>();
+
+    private final Map<ComponentName, Set<ParentView<?>>> viewsByName = new HashMap<>();
+
+    ComponentRegistry() {
+
+    }
+
+    /**
+     * Returns the component view with the specified UUID.
+     *
+     * @param uuid the UUID of the component, see {@link ComponentDescriptor#getUuid()}
+     * @return the component view or {@code null} if there is no such component in the tree
+     */
+    public ParentView<?> getView(UUID uuid) {
+        return viewsByUuid.get(uuid);
+    }
+
+    /**
+     * Returns all component views with the specified name in the order they were registered.
+     *
+     * @param name the name of the components, see {@link ComponentDescriptor#getName()}
+     * @return an unmodifiable set of the component views (never {@code null})
+     */
+    public Set<ParentView<?>> getViews(ComponentName name) {
+        var views = viewsByName.get(name);
+        if (views == null) {
+            return Collections.emptySet();
+        }
+        return Collections.unmodifiableSet(views);
+    }
+
+    /**
+     * Returns whether the component with the specified UUID is in the tree.
+     *
+     * @param uuid the UUID of the component
+     * @return {@code true} if the component is registered, {@code false} otherwise
+     */
+    public boolean contains(UUID uuid) {
+        return viewsByUuid.containsKey(uuid);
+    }
+
+    /**
+     * Returns the number of registered components.
+     *
+     * @return the number of components in the tree
+     */
+    public int size() {
+        return viewsByUuid.size();
+    }
+
+    void register(ParentView<?> view) {
+        var descriptor = view.getViewModel().getDescriptor();
+        viewsByUuid.put(descriptor.getUuid(), view);
+        viewsByName.computeIfAbsent(descriptor.getName(), (n) -> new LinkedHashSet<>()).add(view);
+    }
+
+    void unregister(ParentView<?> view) {
+        var descriptor = view.getViewModel().getDescriptor();
+        viewsByUuid.remove(descriptor.getUuid(), view);
+        var views = viewsByName.get(descriptor.getName());
+        if (views != null && views.remove(view) && views.isEmpty()) {
+            viewsByName.remove(descriptor.getName());
+        }
+    }
+}
@@ -38,7 +38,14 @@ public enum ComponentState {
     INITIALIZED,
 
     /**
-     * The component has been deinitialized and can't be used anymore.
+     * The component has been suspended: its listeners and handlers have been removed, so it doesn't react to any
+     * changes, but its nodes and bindings are kept. The component can be resumed to {@link #INITIALIZED} state.
+     */
+    SUSPENDED,
+
+    /**
+     * The component has been deinitialized and can't be used anymore. A component whose lazy initialization was
+     * cancelled by deinitialization goes to this state directly from {@link #CONSTRUCTED}.
      */
     DEINITIALIZED
 }
@@ -16,6 +16,9 @@
 
 package com.techsenger.mvvm4fx.core;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 /**
  *
  * @author Pavel Castornii
@@ -35,6 +38,39 @@ public interface ComponentView<T extends ComponentViewModel> {
      */
     void initialize();
 
+    /**
+     * Initializes component asynchronously. At first the prepare phase runs in a background thread of the default
+     * executor, that has as many threads as there are available processors, after that {@link #initialize()} is
+     * called in the FX thread. See
+     * {@link #initializeAsync(Executor)} for details.
+     *
+     * @return the future that completes when the component is initialized
+     */
+    CompletableFuture<Void> initializeAsync();
+
+    /**
+     * Initializes component asynchronously. At first the prepare phase runs in a thread of the specified executor
+     * (for example, an executor creating virtual threads), where the component can load data and build nodes that are
+     * not attached to a live scene yet. After that {@link #initialize()} is called in the FX thread. This method must
+     * be called in the FX thread.
+     *
+     * @param executor the executor for the prepare phase
+     * @return the future that completes when the component is initialized or completes exceptionally if the prepare
+     *      phase failed, the component wasn't initialized or it is already being initialized asynchronously
+     */
+    CompletableFuture<Void> initializeAsync(Executor executor);
+
+    /**
+     * Suspends the initialized component, for example, when it becomes invisible. The suspended component keeps its
+     * nodes and bindings, but its listeners and handlers are removed, so it stops reacting to model updates.
+     */
+    void suspend();
+
+    /**
+     * Resumes the suspended component, adding its listeners and handlers again.
+     */
+    void resume();
+
     /**
      * Deinitializes component. Every component must be deinitialized after using it.
      *
@@ -0,0 +1,336 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.techsenger.mvvm4fx.core;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hibernates the least recently used invisible components when the heap usage crosses a threshold. A hibernated
+ * component is deinitialized, so its state is saved to its {@link ComponentHistory}, and then its release action is
+ * called that should remove the component from its parent and release its nodes (for example, by replacing the
+ * content of a tab with a lightweight placeholder). The component is restored on demand by creating a new component
+ * with the same {@link HistoryProvider}, that restores the saved state when it is constructed.
+ *
+ * <p>The framework marks invisible components by suspending them (see {@link ComponentView#suspend()}), so only
+ * suspended components are hibernated. Components with {@link HistoryPolicy#NONE} are never hibernated, as their state
+ * would be lost. The recency of a component is updated every time it is resumed.
+ *
+ * <p>The heap usage is monitored via the collection usage thresholds of the heap memory pools, and the notifications
+ * of the {@link java.lang.management.MemoryMXBean} are processed in the FX thread. After the threshold is exceeded,
+ * the components are hibernated in batches until the collection usage drops below the threshold or there are no
+ * more candidates. The collection usage changes only after a garbage collection, so each next batch is hibernated
+ * only after a new collection of the monitored pools has happened. The previous thresholds of the pools are restored
+ * when the manager is stopped. All other methods must be called in the FX thread.
+ *
+ * @author Pavel Castornii
+ */
+public class HibernationManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(HibernationManager.class);
+
+    /**
+     * The type of the notification that HotSpot garbage collectors send after every collection.
+     */
+    private static final String GARBAGE_COLLECTION_NOTIFICATION = "com.sun.management.gc.notification";
+
+    private static final class Entry {
+
+        private final Consumer<ChildView<?>> releaseAction;
+
+        private final ChangeListener<ComponentState> stateListener;
+
+        Entry(Consumer<ChildView<?>> releaseAction, ChangeListener<ComponentState> stateListener) {
+            this.releaseAction = releaseAction;
+            this.stateListener = stateListener;
+        }
+    }
+
+    /**
+     * Entries in access order, so the eldest entry is the least recently used component.
+     */
+    private final Map<ChildView<?>, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final double heapUsageThreshold;
+
+    private final int batchSize;
+
+    private final NotificationListener memoryListener = this::handleNotification;
+
+    /**
+     * The monitored pools and their collection usage thresholds that were set before {@link #start()}.
+     */
+    private final Map<MemoryPoolMXBean, Long> previousThresholds = new HashMap<>();
+
+    /**
+     * The collectors of the monitored pools that send a notification after every collection.
+     */
+    private final List<NotificationEmitter> collectors = new ArrayList<>();
+
+    private boolean started;
+
+    /**
+     * The number of the collections of the monitored pools when the last batch was hibernated.
+     */
+    private long lastBatchCollectionCount = -1;
+
+    /**
+     * Whether the collection usage was above the threshold after the last batch, so the next collection should
+     * trigger the next batch. Is read in the notification thread.
+     */
+    private volatile boolean awaitingCollection;
+
+    /**
+     * Creates a manager.
+     *
+     * @param heapUsageThreshold the fraction of the maximum size of the heap pools, after exceeding which the
+     *      components are hibernated, for example, {@code 0.8}
+     * @param batchSize the maximum number of the components hibernated in one batch
+     */
+    public HibernationManager(double heapUsageThreshold, int batchSize) {
+        if (heapUsageThreshold <= 0 || heapUsageThreshold > 1) {
+            throw new IllegalArgumentException("Heap usage threshold must be in (0, 1]");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.heapUsageThreshold = heapUsageThreshold;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Starts monitoring the heap usage.
+     */
+    public void start() {
+        if (started) {
+            return;
+        }
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            long max = pool.getUsage().getMax();
+            if (pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported() && max > 0) {
+                previousThresholds.put(pool, pool.getCollectionUsageThreshold());
+                pool.setCollectionUsageThreshold((long) (max * heapUsageThreshold));
+            }
+        }
+        var emitter = (NotificationEmitter) ManagementFactory.getMemoryMXBean();
+        emitter.addNotificationListener(memoryListener, null, null);
+        for (var collector : getCollectors()) {
+            if (collector instanceof NotificationEmitter) {
+                var collectorEmitter = (NotificationEmitter) collector;
+                collectorEmitter.addNotificationListener(memoryListener, null, null);
+                collectors.add(collectorEmitter);
+            }
+        }
+        started = true;
+    }
+
+    /**
+     * Stops monitoring the heap usage and restores the collection usage thresholds of the pools.
+     */
+    public void stop() {
+        if (!started) {
+            return;
+        }
+        try {
+            ((NotificationEmitter) ManagementFactory.getMemoryMXBean()).removeNotificationListener(memoryListener);
+        } catch (ListenerNotFoundException ex) {
+            logger.error("Error removing memory listener", ex);
+        }
+        for (var collector : collectors) {
+            try {
+                collector.removeNotificationListener(memoryListener);
+            } catch (ListenerNotFoundException ex) {
+                logger.error("Error removing collector listener", ex);
+            }
+        }
+        collectors.clear();
+        awaitingCollection = false;
+        lastBatchCollectionCount = -1;
+        for (var e : previousThresholds.entrySet()) {
+            e.getKey().setCollectionUsageThreshold(e.getValue());
+        }
+        previousThresholds.clear();
+        started = false;
+    }
+
+    /**
+     * Registers the component that can be hibernated. The component is unregistered automatically when it is
+     * deinitialized.
+     *
+     * @param view the component
+     * @param releaseAction the action that is called after the component has been deinitialized and that should
+     *      remove it from its parent and release its nodes
+     */
+    public void register(ChildView<?> view, Consumer<ChildView<?>> releaseAction) {
+        ChangeListener<ComponentState> stateListener = (ov, oldV, newV) -> {
+            if (newV == ComponentState.INITIALIZED) {
+                // makes the component the most recently used one
+                entries.get(view);
+            } else if (newV == ComponentState.DEINITIALIZED) {
+                unregister(view);
+            }
+        };
+        var previous = entries.put(view, new Entry(releaseAction, stateListener));
+        var stateProperty = view.getViewModel().getDescriptor().stateProperty();
+        if (previous != null) {
+            stateProperty.removeListener(previous.stateListener);
+        }
+        stateProperty.addListener(stateListener);
+    }
+
+    /**
+     * Unregisters the component.
+     *
+     * @param view the component
+     */
+    public void unregister(ChildView<?> view) {
+        var entry = entries.remove(view);
+        if (entry != null) {
+            view.getViewModel().getDescriptor().stateProperty().removeListener(entry.stateListener);
+        }
+    }
+
+    /**
+     * Returns the number of registered components.
+     *
+     * @return the number of registered components
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Hibernates up to the specified number of the least recently used suspended components.
+     *
+     * @param count the maximum number of components to hibernate
+     * @return the number of hibernated components
+     */
+    public int hibernate(int count) {
+        var candidates = new ArrayList<ChildView<?>>(count);
+        for (var view : entries.keySet()) {
+            if (candidates.size() == count) {
+                break;
+            }
+            var descriptor = view.getViewModel().getDescriptor();
+            if (descriptor.getState() == ComponentState.SUSPENDED
+                    && descriptor.getHistoryPolicy() != HistoryPolicy.NONE) {
+                candidates.add(view);
+            }
+        }
+        int hibernated = 0;
+        for (var view : candidates) {
+            var entry = entries.get(view);
+            logger.debug("{} Hibernating component", view.getViewModel().getDescriptor().getLogPrefix());
+            // the state listener unregisters the component
+            view.deinitialize();
+            if (view.getViewModel().getDescriptor().getState() == ComponentState.DEINITIALIZED) {
+                entry.releaseAction.accept(view);
+                hibernated++;
+            }
+        }
+        return hibernated;
+    }
+
+    /**
+     * Hibernates a batch of components if a collection of the monitored pools has happened since the last batch and
+     * the heap usage after it is still above the threshold. Without a new collection the collection usage still
+     * reflects the state before the last batch, so the next batch waits for the notification of the next collection.
+     */
+    private void hibernateBatch() {
+        if (!started) {
+            return;
+        }
+        long collectionCount = getCollectionCount();
+        if (collectionCount == lastBatchCollectionCount) {
+            return;
+        }
+        if (!isThresholdExceeded()) {
+            awaitingCollection = false;
+            return;
+        }
+        lastBatchCollectionCount = collectionCount;
+        int hibernated = hibernate(batchSize);
+        awaitingCollection = hibernated > 0;
+        if (awaitingCollection) {
+            logger.debug("Hibernated {} components, waiting for next collection", hibernated);
+        }
+    }
+
+    private boolean isThresholdExceeded() {
+        for (var pool : previousThresholds.keySet()) {
+            var usage = pool.getCollectionUsage();
+            if (usage != null && usage.getUsed() >= pool.getCollectionUsageThreshold()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the collectors that manage at least one of the monitored pools.
+     */
+    private List<GarbageCollectorMXBean> getCollectors() {
+        var result = new ArrayList<GarbageCollectorMXBean>();
+        for (var collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            var poolNames = Arrays.asList(collector.getMemoryPoolNames());
+            for (var pool : previousThresholds.keySet()) {
+                if (poolNames.contains(pool.getName())) {
+                    result.add(collector);
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private long getCollectionCount() {
+        long count = 0;
+        for (var collector : getCollectors()) {
+            count += Math.max(0, collector.getCollectionCount());
+        }
+        return count;
+    }
+
+    private void handleNotification(Notification notification, Object handback) {
+        var type = notification.getType();
+        if (MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(type)
+                || MemoryNotificationInfo.MEMORY_THRESHOLD_EXCEEDED.equals(type)) {
+            logger.info("Heap usage threshold exceeded, hibernating components");
+            Platform.runLater(this::hibernateBatch);
+        } else if (GARBAGE_COLLECTION_NOTIFICATION.equals(type) && awaitingCollection) {
+            // the batch checks itself whether this collection has already been handled
+            Platform.runLater(this::hibernateBatch);
+        }
+    }
+}
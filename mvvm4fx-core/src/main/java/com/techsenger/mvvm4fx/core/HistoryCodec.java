@@ -0,0 +1,45 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.mvvm4fx.core;
+
+import java.io.IOException;
+
+/**
+ * Converts {@link ComponentHistory} objects to bytes and back.
+ *
+ * @author Pavel Castornii
+ */
+public interface HistoryCodec {
+
+    /**
+     * Encodes the history. The implementation must call {@link ComponentHistory#preSerialize()} before encoding.
+     *
+     * @param history the history
+     * @return the encoded history
+     * @throws IOException if the history can't be encoded
+     */
+    byte[] encode(ComponentHistory<?> history) throws IOException;
+
+    /**
+     * Decodes the history. The implementation must call {@link ComponentHistory#postDeserialize()} after decoding.
+     *
+     * @param data the encoded history
+     * @return the history
+     * @throws IOException if the history can't be decoded
+     */
+    ComponentHistory<?> decode(byte[] data) throws IOException;
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.mvvm4fx.core;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * The key of a persisted {@link ComponentHistory} that consists of the text of the {@link ComponentName} and a
+ * {@link UUID}. The key must identify the same component across application restarts, so the UUID must be supplied by
+ * the application (for example, the id of the document that is shown by the component). The UUID of the component
+ * descriptor can't be used, as it is generated anew in every session.
+ *
+ * @author Pavel Castornii
+ */
+public final class HistoryKey {
+
+    /**
+     * Creates the key of the component with the specified name and the persistent id, from which a name-based UUID
+     * is derived.
+     *
+     * @param name the component name
+     * @param persistentId the id that identifies the component across application restarts, for example, the path
+     *      of the file opened in the component
+     * @return the history key
+     */
+    public static HistoryKey of(ComponentName name, String persistentId) {
+        var uuid = UUID.nameUUIDFromBytes(persistentId.getBytes(StandardCharsets.UTF_8));
+        return new HistoryKey(name.getText(), uuid);
+    }
+
+    private final String name;
+
+    private final UUID uuid;
+
+    public HistoryKey(String name, UUID uuid) {
+        this.name = Objects.requireNonNull(name);
+        this.uuid = Objects.requireNonNull(uuid);
+    }
+
+    /**
+     * Returns the text of the component name.
+     *
+     * @return the component name text
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the UUID of the component.
+     *
+     * @return the component UUID
+     */
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof HistoryKey)) {
+            return false;
+        }
+        var other = (HistoryKey) obj;
+        return uuid.equals(other.uuid) && name.equals(other.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * name.hashCode() + uuid.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return name + "/" + uuid;
+    }
+}
@@ -24,4 +24,15 @@ package com.techsenger.mvvm4fx.core;
 public interface HistoryProvider {
 
     ComponentHistory<?> provide();
+
+    /**
+     * Called after the state of the component has been saved to the history on deinitialization. The providers that
+     * keep histories in a storage write the history here. The method is called in the FX thread, so it must not block
+     * (see {@link HistoryRepository}). The default implementation does nothing.
+     *
+     * @param history the history that was saved
+     */
+    default void persist(ComponentHistory<?> history) {
+
+    }
 }
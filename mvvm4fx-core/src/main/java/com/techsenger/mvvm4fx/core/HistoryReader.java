@@ -0,0 +1,237 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.mvvm4fx.core;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the fields of a {@link BinaryHistory} written by {@link HistoryWriter}.
+ *
+ * @author Pavel Castornii
+ */
+public final class HistoryReader {
+
+    /**
+     * Reads one element of a collection.
+     *
+     * @param <T> the element type
+     */
+    @FunctionalInterface
+    public interface ElementReader<T> {
+
+        T read(HistoryReader reader) throws IOException;
+    }
+
+    private final byte[] buffer;
+
+    private int position;
+
+    HistoryReader(byte[] buffer, int position) {
+        this.buffer = buffer;
+        this.position = position;
+    }
+
+    public boolean readBoolean() throws IOException {
+        return readByte() != 0;
+    }
+
+    public byte readByte() throws IOException {
+        if (position >= buffer.length) {
+            throw new EOFException("Unexpected end of history data");
+        }
+        return buffer[position++];
+    }
+
+    public int readInt() throws IOException {
+        int value = readUnsignedVarInt();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public long readLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (value >>> 1) ^ -(value & 1);
+            }
+        }
+        throw new IOException("Malformed variable-length long");
+    }
+
+    public float readFloat() throws IOException {
+        return Float.intBitsToFloat(readFixedInt());
+    }
+
+    public double readDouble() throws IOException {
+        long high = readFixedInt() & 0xFFFFFFFFL;
+        long low = readFixedInt() & 0xFFFFFFFFL;
+        return Double.longBitsToDouble((high << 32) | low);
+    }
+
+    public String readString() throws IOException {
+        int length = readLength();
+        if (length < 0) {
+            return null;
+        }
+        if (length > buffer.length - position) {
+            throw new EOFException("Unexpected end of history data");
+        }
+        var value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    /**
+     * Reads the enum constant written by {@link HistoryWriter#writeEnum}.
+     *
+     * @param type the enum class
+     * @return the enum constant or {@code null} if {@code null} was written or the constant doesn't exist anymore
+     * @throws IOException if the data is malformed
+     */
+    public <E extends Enum<E>> E readEnum(Class<E> type) throws IOException {
+        var name = readString();
+        if (name == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    public int[] readInts() throws IOException {
+        int length = readLength();
+        if (length < 0) {
+            return null;
+        }
+        var values = new int[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = readInt();
+        }
+        return values;
+    }
+
+    public long[] readLongs() throws IOException {
+        int length = readLength();
+        if (length < 0) {
+            return null;
+        }
+        var values = new long[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = readLong();
+        }
+        return values;
+    }
+
+    public double[] readDoubles() throws IOException {
+        int length = readLength();
+        if (length < 0) {
+            return null;
+        }
+        var values = new double[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = readDouble();
+        }
+        return values;
+    }
+
+    public List<String> readStrings() throws IOException {
+        return readList(HistoryReader::readString);
+    }
+
+    /**
+     * Reads the collection written by {@link HistoryWriter#writeCollection} as a list.
+     *
+     * @param elementReader the reader of the elements
+     * @return the list or {@code null} if {@code null} was written
+     * @throws IOException if the data is malformed
+     */
+    public <T> List<T> readList(ElementReader<? extends T> elementReader) throws IOException {
+        int length = readLength();
+        if (length < 0) {
+            return null;
+        }
+        var values = new ArrayList<T>(length);
+        for (int i = 0; i < length; i++) {
+            values.add(elementReader.read(this));
+        }
+        return values;
+    }
+
+    /**
+     * Reads the map written by {@link HistoryWriter#writeMap}.
+     *
+     * @param keyReader the reader of the keys
+     * @param valueReader the reader of the values
+     * @return the map that keeps the order of the entries or {@code null} if {@code null} was written
+     * @throws IOException if the data is malformed
+     */
+    public <K, V> Map<K, V> readMap(ElementReader<? extends K> keyReader, ElementReader<? extends V> valueReader)
+            throws IOException {
+        int length = readLength();
+        if (length < 0) {
+            return null;
+        }
+        var map = new LinkedHashMap<K, V>();
+        for (int i = 0; i < length; i++) {
+            K key = keyReader.read(this);
+            map.put(key, valueReader.read(this));
+        }
+        return map;
+    }
+
+    int readUnsignedVarInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length int");
+    }
+
+    private int readFixedInt() throws IOException {
+        if (buffer.length - position < 4) {
+            throw new EOFException("Unexpected end of history data");
+        }
+        int value = (buffer[position] & 0xFF) << 24 | (buffer[position + 1] & 0xFF) << 16
+                | (buffer[position + 2] & 0xFF) << 8 | buffer[position + 3] & 0xFF;
+        position += 4;
+        return value;
+    }
+
+    /**
+     * Reads the length, {@code -1} means {@code null}.
+     */
+    private int readLength() throws IOException {
+        int length = readUnsignedVarInt() - 1;
+        if (length < -1 || length > buffer.length - position) {
+            throw new IOException("Malformed length " + length);
+        }
+        return length;
+    }
+}
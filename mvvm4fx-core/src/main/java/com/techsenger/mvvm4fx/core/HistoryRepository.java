@@ -0,0 +1,342 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.mvvm4fx.core;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persists component histories in a {@link HistoryStore} with a write-behind queue, so closing components never waits
+ * for I/O. When a history is saved, it is encoded in the calling thread and put into the queue, that is written to
+ * the store in batches by a background thread. Several saves of the same component are coalesced, only the last one
+ * is written. As there is one writer thread and each batch contains only the last version of every history, the
+ * histories of one component are always written in the order they were saved.
+ *
+ * <p>Loading a history takes the queue into account, so a component that is reopened before its history is written
+ * gets the latest state. If a batch can't be written, its histories are put back into the queue, unless they have
+ * been saved again meanwhile, and the batch is retried with a delay that doubles after every failure. The queue is
+ * flushed on {@link #close()} and on JVM shutdown, the histories that can't be written then are lost.
+ *
+ * @author Pavel Castornii
+ */
+public class HistoryRepository implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(HistoryRepository.class);
+
+    private static final long MIN_RETRY_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private static final long MAX_RETRY_DELAY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final HistoryStore store;
+
+    private final HistoryCodec codec;
+
+    private final long batchDelayNanos;
+
+    private final Object lock = new Object();
+
+    /**
+     * The histories waiting for writing, in the order of the first save.
+     */
+    private Map<HistoryKey, byte[]> pending = new LinkedHashMap<>();
+
+    /**
+     * The batch being written now or {@code null}.
+     */
+    private Map<HistoryKey, byte[]> writing;
+
+    private int flushRequests;
+
+    /**
+     * The number of failed writes since the last successful one.
+     */
+    private int consecutiveFailures;
+
+    /**
+     * The total number of failed writes, lets a flush find out whether a write has failed while it was waiting.
+     */
+    private long failureCount;
+
+    private Exception lastFailure;
+
+    private boolean closed;
+
+    private Thread writer;
+
+    private Thread shutdownHook;
+
+    /**
+     * Creates a repository that uses {@link SerializationHistoryCodec} and waits 100 ms for more saves before writing
+     * a batch.
+     *
+     * @param store the store
+     */
+    public HistoryRepository(HistoryStore store) {
+        this(store, new SerializationHistoryCodec(), 100);
+    }
+
+    /**
+     * Creates a repository.
+     *
+     * @param store the store
+     * @param codec the codec for the histories
+     * @param batchDelayMillis the time to wait for more saves before a batch is written
+     */
+    public HistoryRepository(HistoryStore store, HistoryCodec codec, long batchDelayMillis) {
+        if (batchDelayMillis < 0) {
+            throw new IllegalArgumentException("Batch delay can't be negative");
+        }
+        this.store = store;
+        this.codec = codec;
+        this.batchDelayNanos = TimeUnit.MILLISECONDS.toNanos(batchDelayMillis);
+    }
+
+    /**
+     * Creates a provider for the component with the specified key. The provider loads the history from this
+     * repository or, if there is no one, creates a new history by the factory, and saves the history to this
+     * repository when the component is deinitialized. The key must be stable, i.e. the same component must get the
+     * same key after the application is restarted, otherwise its history will never be found.
+     *
+     * @param key the stable key of the component history, see {@link HistoryKey#of(ComponentName, String)}
+     * @param factory the factory of new histories
+     * @return the history provider
+     */
+    public HistoryProvider createProvider(HistoryKey key, Supplier<? extends ComponentHistory<?>> factory) {
+        return new HistoryProvider() {
+
+            @Override
+            public ComponentHistory<?> provide() {
+                try {
+                    var history = load(key);
+                    if (history != null) {
+                        return history;
+                    }
+                } catch (IOException ex) {
+                    logger.error("Error loading history {}", key, ex);
+                }
+                return factory.get();
+            }
+
+            @Override
+            public void persist(ComponentHistory<?> history) {
+                try {
+                    save(key, history);
+                } catch (IOException | IllegalStateException ex) {
+                    logger.error("Error saving history {}", key, ex);
+                }
+            }
+        };
+    }
+
+    /**
+     * Loads the history, taking into account the histories that have not been written yet.
+     *
+     * @param key the history key
+     * @return the history or {@code null} if there is no history for the key
+     * @throws IOException if the history can't be read or decoded
+     */
+    public ComponentHistory<?> load(HistoryKey key) throws IOException {
+        byte[] data;
+        synchronized (lock) {
+            data = pending.get(key);
+            if (data == null && writing != null) {
+                data = writing.get(key);
+            }
+        }
+        if (data == null) {
+            data = store.read(key);
+        }
+        return data == null ? null : codec.decode(data);
+    }
+
+    /**
+     * Encodes the history in the calling thread and queues it for writing.
+     *
+     * @param key the history key
+     * @param history the history
+     * @throws IOException if the history can't be encoded
+     * @throws IllegalStateException if the repository is closed
+     */
+    public void save(HistoryKey key, ComponentHistory<?> history) throws IOException {
+        var data = codec.encode(history);
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("Repository is closed");
+            }
+            pending.put(key, data);
+            if (writer == null) {
+                startWriter();
+            }
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Returns the number of histories that have not been written yet.
+     *
+     * @return the number of pending histories
+     */
+    public int getPendingCount() {
+        synchronized (lock) {
+            return pending.size() + (writing == null ? 0 : writing.size());
+        }
+    }
+
+    /**
+     * Writes all queued histories without waiting for the batch delay or the retry delay and blocks until they are
+     * written.
+     *
+     * @throws IOException if writing the histories has failed, the histories stay in the queue and will be retried
+     */
+    public void flush() throws IOException {
+        synchronized (lock) {
+            long failuresBefore = failureCount;
+            flushRequests++;
+            lock.notifyAll();
+            try {
+                while (writer != null && (!pending.isEmpty() || writing != null) && failureCount == failuresBefore) {
+                    lock.wait();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                flushRequests--;
+            }
+            if (failureCount != failuresBefore) {
+                throw new IOException("Error writing histories", lastFailure);
+            }
+            if (!pending.isEmpty()) {
+                throw new IOException(pending.size() + " histories were not written");
+            }
+        }
+    }
+
+    /**
+     * Writes all queued histories and stops the writer thread. The store is not closed.
+     */
+    @Override
+    public void close() {
+        Thread thread;
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            lock.notifyAll();
+            thread = writer;
+        }
+        if (thread == null) {
+            return;
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (Thread.currentThread() != shutdownHook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException ex) {
+                // the JVM is shutting down, the hook is running
+            }
+        }
+    }
+
+    private void startWriter() {
+        writer = new Thread(this::writeBatches, "mvvm4fx-history-writer");
+        writer.setDaemon(true);
+        writer.start();
+        shutdownHook = new Thread(this::close, "mvvm4fx-history-flusher");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    private void writeBatches() {
+        while (true) {
+            Map<HistoryKey, byte[]> batch;
+            synchronized (lock) {
+                try {
+                    while (pending.isEmpty() && !closed) {
+                        lock.wait();
+                    }
+                    // collecting more saves into the batch or waiting before the retry
+                    long delay = consecutiveFailures == 0 ? batchDelayNanos : getRetryDelay();
+                    long deadline = System.nanoTime() + delay;
+                    long remaining = delay;
+                    while (remaining > 0 && !closed && flushRequests == 0) {
+                        TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                        remaining = deadline - System.nanoTime();
+                    }
+                } catch (InterruptedException ex) {
+                    logger.error("History writer was interrupted, {} histories are not written", pending.size());
+                    writer = null;
+                    lock.notifyAll();
+                    return;
+                }
+                if (pending.isEmpty()) {
+                    // closed
+                    writer = null;
+                    lock.notifyAll();
+                    return;
+                }
+                batch = pending;
+                pending = new LinkedHashMap<>();
+                writing = batch;
+            }
+            Exception failure = null;
+            try {
+                store.write(batch);
+                logger.debug("Written {} histories", batch.size());
+            } catch (Exception ex) {
+                failure = ex;
+            }
+            synchronized (lock) {
+                writing = null;
+                if (failure == null) {
+                    consecutiveFailures = 0;
+                } else {
+                    consecutiveFailures++;
+                    failureCount++;
+                    lastFailure = failure;
+                    if (closed) {
+                        logger.error("Error writing {} histories, they are lost", batch.size(), failure);
+                    } else {
+                        logger.error("Error writing {} histories, retrying", batch.size(), failure);
+                        // the newer saves of the same histories replace the failed ones, keeping the order
+                        var merged = new LinkedHashMap<>(batch);
+                        merged.putAll(pending);
+                        pending = merged;
+                    }
+                }
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private long getRetryDelay() {
+        long delay = Math.max(batchDelayNanos, MIN_RETRY_DELAY_NANOS);
+        for (int i = 1; i < consecutiveFailures && delay < MAX_RETRY_DELAY_NANOS; i++) {
+            delay <<= 1;
+        }
+        return Math.min(delay, MAX_RETRY_DELAY_NANOS);
+    }
+}
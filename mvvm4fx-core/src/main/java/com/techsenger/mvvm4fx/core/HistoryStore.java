@@ -0,0 +1,46 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.mvvm4fx.core;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Storage of encoded histories. The store is used by {@link HistoryRepository} that calls {@link #write} from one
+ * background thread, while {@link #read} can be called from any thread.
+ *
+ * @author Pavel Castornii
+ */
+public interface HistoryStore {
+
+    /**
+     * Reads the encoded history.
+     *
+     * @param key the history key
+     * @return the encoded history or {@code null} if there is no history for the key
+     * @throws IOException if an I/O error occurs
+     */
+    byte[] read(HistoryKey key) throws IOException;
+
+    /**
+     * Writes a batch of encoded histories, replacing the previous histories with the same keys.
+     *
+     * @param records the encoded histories by their keys
+     * @throws IOException if an I/O error occurs
+     */
+    void write(Map<HistoryKey, byte[]> records) throws IOException;
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.mvvm4fx.core;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Writes the fields of a {@link BinaryHistory} to a growable byte array. The integers are written as variable-length
+ * values, so small numbers take one byte.
+ *
+ * @author Pavel Castornii
+ */
+public final class HistoryWriter {
+
+    /**
+     * Writes one element of a collection.
+     *
+     * @param <T> the element type
+     */
+    @FunctionalInterface
+    public interface ElementWriter<T> {
+
+        void write(HistoryWriter writer, T element);
+    }
+
+    private byte[] buffer;
+
+    private int size;
+
+    HistoryWriter(int initialCapacity) {
+        this.buffer = new byte[initialCapacity];
+    }
+
+    public void writeBoolean(boolean value) {
+        writeByte(value ? 1 : 0);
+    }
+
+    public void writeByte(int value) {
+        ensureCapacity(size + 1);
+        buffer[size++] = (byte) value;
+    }
+
+    /**
+     * Writes the int as a variable-length zigzag-encoded value.
+     *
+     * @param value the value
+     */
+    public void writeInt(int value) {
+        writeUnsignedVarInt((value << 1) ^ (value >> 31));
+    }
+
+    /**
+     * Writes the long as a variable-length zigzag-encoded value.
+     *
+     * @param value the value
+     */
+    public void writeLong(long value) {
+        writeUnsignedVarLong((value << 1) ^ (value >> 63));
+    }
+
+    public void writeFloat(float value) {
+        writeFixedInt(Float.floatToIntBits(value));
+    }
+
+    public void writeDouble(double value) {
+        long bits = Double.doubleToLongBits(value);
+        writeFixedInt((int) (bits >>> 32));
+        writeFixedInt((int) bits);
+    }
+
+    /**
+     * Writes the string in UTF-8. The string can be {@code null}.
+     *
+     * @param value the string
+     */
+    public void writeString(String value) {
+        if (value == null) {
+            writeUnsignedVarInt(0);
+            return;
+        }
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeUnsignedVarInt(bytes.length + 1);
+        writeBytes(bytes);
+    }
+
+    /**
+     * Writes the enum constant by its name, so the constants can be reordered. The value can be {@code null}.
+     *
+     * @param value the enum constant
+     */
+    public void writeEnum(Enum<?> value) {
+        writeString(value == null ? null : value.name());
+    }
+
+    /**
+     * Writes the array. The array can be {@code null}.
+     *
+     * @param values the array
+     */
+    public void writeInts(int[] values) {
+        if (writeLength(values == null ? -1 : values.length)) {
+            for (int value : values) {
+                writeInt(value);
+            }
+        }
+    }
+
+    /**
+     * Writes the array. The array can be {@code null}.
+     *
+     * @param values the array
+     */
+    public void writeLongs(long[] values) {
+        if (writeLength(values == null ? -1 : values.length)) {
+            for (long value : values) {
+                writeLong(value);
+            }
+        }
+    }
+
+    /**
+     * Writes the array. The array can be {@code null}.
+     *
+     * @param values the array
+     */
+    public void writeDoubles(double[] values) {
+        if (writeLength(values == null ? -1 : values.length)) {
+            for (double value : values) {
+                writeDouble(value);
+            }
+        }
+    }
+
+    /**
+     * Writes the collection of strings. The collection can be {@code null}.
+     *
+     * @param values the strings
+     */
+    public void writeStrings(Collection<String> values) {
+        writeCollection(values, HistoryWriter::writeString);
+    }
+
+    /**
+     * Writes the collection. The collection can be {@code null}.
+     *
+     * @param values the collection
+     * @param elementWriter the writer of the elements
+     */
+    public <T> void writeCollection(Collection<? extends T> values, ElementWriter<T> elementWriter) {
+        if (writeLength(values == null ? -1 : values.size())) {
+            for (T value : values) {
+                elementWriter.write(this, value);
+            }
+        }
+    }
+
+    /**
+     * Writes the map. The map can be {@code null}.
+     *
+     * @param map the map
+     * @param keyWriter the writer of the keys
+     * @param valueWriter the writer of the values
+     */
+    public <K, V> void writeMap(Map<? extends K, ? extends V> map, ElementWriter<K> keyWriter,
+            ElementWriter<V> valueWriter) {
+        if (writeLength(map == null ? -1 : map.size())) {
+            for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+                keyWriter.write(this, entry.getKey());
+                valueWriter.write(this, entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Returns the number of written bytes.
+     *
+     * @return the number of bytes
+     */
+    public int size() {
+        return size;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    void writeUnsignedVarInt(int value) {
+        ensureCapacity(size + 5);
+        while ((value & ~0x7F) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+    }
+
+    private void writeUnsignedVarLong(long value) {
+        ensureCapacity(size + 10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+    }
+
+    private void writeFixedInt(int value) {
+        ensureCapacity(size + 4);
+        buffer[size++] = (byte) (value >>> 24);
+        buffer[size++] = (byte) (value >>> 16);
+        buffer[size++] = (byte) (value >>> 8);
+        buffer[size++] = (byte) value;
+    }
+
+    private void writeBytes(byte[] bytes) {
+        ensureCapacity(size + bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+    }
+
+    /**
+     * Writes the length, {@code -1} means {@code null}.
+     *
+     * @return {@code true} if the length is not {@code null} and the elements must be written
+     */
+    private boolean writeLength(int length) {
+        writeUnsignedVarInt(length + 1);
+        return length >= 0;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(capacity, buffer.length << 1));
+        }
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.mvvm4fx.core;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Detects the components that were released by the framework but are still strongly reachable. The views and view
+ * models are tracked via weak references from the moment they are deinitialized (or, for the views kept in a
+ * {@link ComponentPool}, from the moment they leave the pool), and a component is reported if it has not been
+ * collected after the configured number of GC cycles. The most common reason of such a leak is a listener added in
+ * {@code addListeners} that is not removed in {@code removeListeners}.
+ *
+ * <p>Only the cycles of the collectors of the old generation are counted, as a young collection doesn't collect
+ * the components that have been promoted, and counting it would report them too early. If the heap is not divided
+ * into generations, every cycle collects the whole heap and all collectors are counted.
+ *
+ * <p>Only one detector can be active at a time. When no detector is active, the framework doesn't track anything.
+ * The leaks are logged as warnings and passed to the leak handler if it is set.
+ *
+ * @author Pavel Castornii
+ */
+public class LeakDetector {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeakDetector.class);
+
+    private static final List<GarbageCollectorMXBean> oldCollectors = findOldCollectors();
+
+    private static volatile LeakDetector active;
+
+    /**
+     * Returns the active detector.
+     *
+     * @return the active detector or {@code null} if there is no one
+     */
+    public static LeakDetector getActive() {
+        return active;
+    }
+
+    static void track(Object component, ComponentDescriptor descriptor) {
+        var detector = active;
+        if (detector != null) {
+            detector.add(component, descriptor);
+        }
+    }
+
+    private static long getGcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean bean : oldCollectors) {
+            count += Math.max(0, bean.getCollectionCount());
+        }
+        return count;
+    }
+
+    /**
+     * Returns the collectors that collect the old generation, i.e. the ones that manage an old (tenured) pool and are
+     * not young ones, or, if there are no such collectors, all collectors that are not young ones.
+     */
+    private static List<GarbageCollectorMXBean> findOldCollectors() {
+        var result = new ArrayList<GarbageCollectorMXBean>();
+        var others = new ArrayList<GarbageCollectorMXBean>();
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (isYoungCollector(bean.getName())) {
+                continue;
+            }
+            boolean old = false;
+            for (var pool : bean.getMemoryPoolNames()) {
+                if (pool.contains("Old") || pool.contains("Tenured")) {
+                    old = true;
+                    break;
+                }
+            }
+            if (old) {
+                result.add(bean);
+            } else {
+                others.add(bean);
+            }
+        }
+        return result.isEmpty() ? others : result;
+    }
+
+    /**
+     * Returns whether the collector collects only the young generation, for example, {@code G1 Young Generation},
+     * {@code PS Scavenge}, {@code ParNew}, {@code Copy} or {@code ZGC Minor Cycles}.
+     */
+    private static boolean isYoungCollector(String name) {
+        return name.contains("Young") || name.contains("Scavenge") || name.contains("ParNew") || name.equals("Copy")
+                || name.contains("Minor");
+    }
+
+    private static final class TrackedReference extends WeakReference<Object> {
+
+        private final String description;
+
+        private final long gcCount;
+
+        private volatile boolean reported;
+
+        TrackedReference(Object component, ComponentDescriptor descriptor, ReferenceQueue<Object> queue) {
+            super(component, queue);
+            String kind = component instanceof ComponentView ? "View" : "ViewModel";
+            this.description = kind + " of " + descriptor.getFullName();
+            this.gcCount = getGcCount();
+        }
+    }
+
+    private final Set<TrackedReference> references = ConcurrentHashMap.newKeySet();
+
+    private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+
+    private final int gcCycles;
+
+    private final long checkIntervalMillis;
+
+    private volatile Consumer<String> leakHandler;
+
+    private ScheduledExecutorService executor;
+
+    /**
+     * Creates a detector.
+     *
+     * @param gcCycles the number of GC cycles after which a still reachable component is reported
+     * @param checkIntervalMillis the interval between the checks in milliseconds
+     */
+    public LeakDetector(int gcCycles, long checkIntervalMillis) {
+        if (gcCycles < 1) {
+            throw new IllegalArgumentException("GC cycles must be positive");
+        }
+        if (checkIntervalMillis < 1) {
+            throw new IllegalArgumentException("Check interval must be positive");
+        }
+        this.gcCycles = gcCycles;
+        this.checkIntervalMillis = checkIntervalMillis;
+    }
+
+    /**
+     * Makes this detector active and starts the periodic checks in a daemon thread.
+     */
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        if (active != null) {
+            throw new IllegalStateException("Another leak detector is active");
+        }
+        executor = Executors.newSingleThreadScheduledExecutor((r) -> {
+            var thread = new Thread(r, "mvvm4fx-leak-detector");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::check, checkIntervalMillis, checkIntervalMillis, TimeUnit.MILLISECONDS);
+        active = this;
+    }
+
+    /**
+     * Stops the checks and clears all tracked components.
+     */
+    public synchronized void stop() {
+        if (executor == null) {
+            return;
+        }
+        active = null;
+        executor.shutdownNow();
+        executor = null;
+        references.clear();
+    }
+
+    /**
+     * Sets the handler that receives the description of every detected leak, for example
+     * {@code ViewModel of Editor@A0A0A0A0}. The handler is called in the thread of the detector.
+     *
+     * @param leakHandler the handler or {@code null}
+     */
+    public void setLeakHandler(Consumer<String> leakHandler) {
+        this.leakHandler = leakHandler;
+    }
+
+    /**
+     * Returns the descriptions of the reported components that are still reachable.
+     *
+     * @return the list of the leaked components
+     */
+    public List<String> getLeaks() {
+        var leaks = new ArrayList<String>();
+        for (var reference : references) {
+            if (reference.reported && reference.get() != null) {
+                leaks.add(reference.description);
+            }
+        }
+        return leaks;
+    }
+
+    /**
+     * Returns the number of the tracked components that have not been collected yet.
+     *
+     * @return the number of tracked components
+     */
+    public int size() {
+        return references.size();
+    }
+
+    /**
+     * Removes the collected components and reports the components that survived the configured number of GC cycles.
+     * It is called periodically, but can also be called directly, for example after {@link System#gc()}.
+     */
+    public void check() {
+        Reference<?> reference;
+        while ((reference = queue.poll()) != null) {
+            references.remove(reference);
+        }
+        long gcCount = getGcCount();
+        for (var tracked : references) {
+            if (!tracked.reported && gcCount - tracked.gcCount >= gcCycles && tracked.get() != null) {
+                tracked.reported = true;
+                logger.warn("{} is still reachable after {} GC cycles since its release", tracked.description,
+                        gcCount - tracked.gcCount);
+                var handler = this.leakHandler;
+                if (handler != null) {
+                    try {
+                        handler.accept(tracked.description);
+                    } catch (Exception ex) {
+                        logger.error("Error handling leak of {}", tracked.description, ex);
+                    }
+                }
+            }
+        }
+    }
+
+    private void add(Object component, ComponentDescriptor descriptor) {
+        references.add(new TrackedReference(component, descriptor, queue));
+    }
+}
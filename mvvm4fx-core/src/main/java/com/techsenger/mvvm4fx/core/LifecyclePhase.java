@@ -0,0 +1,57 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.mvvm4fx.core;
+
+/**
+ * Phases of the component lifecycle, each phase corresponds to one hook method of {@link AbstractComponentView}.
+ *
+ * @author Pavel Castornii
+ */
+public enum LifecyclePhase {
+
+    PREPARE,
+
+    PRE_INITIALIZE,
+
+    BUILD,
+
+    REBUILD,
+
+    BIND,
+
+    ADD_LISTENERS,
+
+    ADD_HANDLERS,
+
+    POST_INITIALIZE,
+
+    PRE_SUSPEND,
+
+    POST_RESUME,
+
+    PRE_DEINITIALIZE,
+
+    REMOVE_HANDLERS,
+
+    REMOVE_LISTENERS,
+
+    UNBIND,
+
+    UNBUILD,
+
+    POST_DEINITIALIZE
+}
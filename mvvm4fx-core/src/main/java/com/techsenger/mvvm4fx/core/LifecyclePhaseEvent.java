@@ -0,0 +1,35 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.mvvm4fx.core;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JDK Flight Recorder event for one {@link LifecyclePhase} of a component.
+ *
+ * @author Pavel Castornii
+ */
+@Name("com.techsenger.mvvm4fx.LifecyclePhase")
+@Label("Component Lifecycle Phase")
+@Description("Execution of the lifecycle hook of the component view")
+final class LifecyclePhaseEvent extends AbstractComponentEvent {
+
+    @Label("Phase")
+    String phase;
+}
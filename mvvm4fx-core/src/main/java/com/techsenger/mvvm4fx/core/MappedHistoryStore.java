@@ -0,0 +1,619 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.mvvm4fx.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link HistoryStore} backed by a memory-mapped file, so reading histories at startup is a matter of page faults
+ * instead of stream reading. The index from {@link HistoryKey} to the record offset is kept in memory and is built
+ * when the store is opened.
+ *
+ * <p>Records are never overwritten: every new version of a history is appended to the end of the file, the end of
+ * the records is forced to the disk and only then the record of the previous version is marked as dead. Every record
+ * has a CRC, so a record that was torn by a crash is skipped when the file is opened and the previous version is
+ * used, and if the crash happened before the old record was marked as dead, the newer record wins. When the dead
+ * records take more than the compaction ratio of the file, the live records are rewritten to a new file and the
+ * store switches to it.
+ *
+ * <p>The data is kept in the files whose names consist of the file name of the path and the generation number, for
+ * example, {@code histories.dat.1}. The compaction writes the next generation and its header is written last, so a
+ * file of an interrupted compaction is recognized and deleted when the store is opened. The header of a new file is
+ * forced to the disk when the file is created, and a file whose header consists of zeros (the file was created, but
+ * its header never reached the disk) is treated as an empty one. The store is used with
+ * {@link HistoryRepository}, for example,
+ * {@code new HistoryRepository(new MappedHistoryStore(path), new BinaryHistoryCodec(), 100)}.
+ *
+ * <p>File layout: the header (magic, version, end of the records) is followed by the records. Every record consists of
+ * the capacity, the live flag, the component name, the UUID, the data length, the CRC and the data. The CRC covers all
+ * fields except the live flag.
+ *
+ * <p>Writes, compaction and closing are serialized. Reads run concurrently with them and wait only while the mapped
+ * memory or the index are being changed, but not while the file is forced to the disk or compacted.
+ *
+ * @author Pavel Castornii
+ */
+public class MappedHistoryStore implements HistoryStore, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedHistoryStore.class);
+
+    private static final int MAGIC = 0x4D344648;
+
+    private static final int VERSION = 2;
+
+    private static final int HEADER_SIZE = 16;
+
+    private static final int END_OFFSET = 8;
+
+    private static final int INITIAL_SIZE = 64 * 1024;
+
+    /**
+     * Offsets within a record.
+     */
+    private static final int LIVE_OFFSET = 4;
+
+    private static final int NAME_OFFSET = 5;
+
+    /**
+     * The size of a record without the name and the data.
+     */
+    private static final int FIXED_RECORD_SIZE = NAME_OFFSET + 2 + 16 + 4 + 4;
+
+    private static final byte DEAD = 0;
+
+    private static final byte LIVE = 1;
+
+    private final Path path;
+
+    private final double compactionRatio;
+
+    /**
+     * Guards the mapping and the index. The write lock is held only while they are being changed.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<HistoryKey, Integer> offsets;
+
+    private FileChannel channel;
+
+    private MappedByteBuffer buffer;
+
+    private int generation;
+
+    /**
+     * The end of the records.
+     */
+    private int end;
+
+    private int deadBytes;
+
+    /**
+     * Opens or creates the store that is compacted when the dead records take more than half of the file.
+     *
+     * @param path the path of the file, the generation number is appended to its name
+     * @throws IOException if an I/O error occurs
+     */
+    public MappedHistoryStore(Path path) throws IOException {
+        this(path, 0.5);
+    }
+
+    /**
+     * Opens or creates the store.
+     *
+     * @param path the path of the file, the generation number is appended to its name
+     * @param compactionRatio the share of the dead records in range {@code (0, 1]} that triggers the compaction
+     * @throws IOException if an I/O error occurs
+     */
+    public MappedHistoryStore(Path path, double compactionRatio) throws IOException {
+        if (compactionRatio <= 0 || compactionRatio > 1) {
+            throw new IllegalArgumentException("Compaction ratio must be in (0, 1]");
+        }
+        this.path = path;
+        this.compactionRatio = compactionRatio;
+        openLatest();
+    }
+
+    @Override
+    public byte[] read(HistoryKey key) throws IOException {
+        lock.readLock().lock();
+        try {
+            ensureOpen();
+            var offset = offsets.get(key);
+            if (offset == null) {
+                return null;
+            }
+            int dataOffset = getDataOffset(buffer, offset);
+            var data = new byte[buffer.getInt(dataOffset - 8)];
+            getBytes(buffer, dataOffset, data);
+            return data;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public synchronized void write(Map<HistoryKey, byte[]> records) throws IOException {
+        ensureOpen();
+        var replaced = new ArrayList<Integer>();
+        lock.writeLock().lock();
+        try {
+            for (var entry : records.entrySet()) {
+                var old = write(entry.getKey(), entry.getValue());
+                if (old != null) {
+                    replaced.add(old);
+                }
+            }
+            buffer.putInt(END_OFFSET, end);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        // the new records must be on the disk before the old ones are marked as dead
+        buffer.force();
+        if (!replaced.isEmpty()) {
+            lock.writeLock().lock();
+            try {
+                for (int offset : replaced) {
+                    buffer.put(offset + LIVE_OFFSET, DEAD);
+                    deadBytes += getRecordSize(buffer, offset);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            buffer.force();
+        }
+        if (deadBytes > 0 && deadBytes >= (end - HEADER_SIZE) * compactionRatio) {
+            compact();
+        }
+    }
+
+    /**
+     * Returns the number of stored histories.
+     *
+     * @return the number of histories
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return offsets.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of bytes taken by the dead records.
+     *
+     * @return the number of dead bytes
+     */
+    public int getDeadBytes() {
+        lock.readLock().lock();
+        try {
+            return deadBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the path of the file of the current generation.
+     *
+     * @return the file path
+     */
+    public synchronized Path getCurrentPath() {
+        return getGenerationPath(generation);
+    }
+
+    /**
+     * Rewrites the live records to the file of the next generation and switches to it. The current file stays intact
+     * until the new file is complete, so if the compaction fails, the store continues to use the current file.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public synchronized void compact() throws IOException {
+        ensureOpen();
+        int newGeneration = generation + 1;
+        var newPath = getGenerationPath(newGeneration);
+        boolean switched = false;
+        try {
+            try (var newChannel = FileChannel.open(newPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                // the writers are serialized, so the current buffer doesn't change while it is copied
+                int newEnd = HEADER_SIZE;
+                newChannel.position(HEADER_SIZE);
+                for (int offset : offsets.values()) {
+                    int recordSize = getRecordSize(buffer, offset);
+                    var record = buffer.duplicate();
+                    record.limit(offset + recordSize).position(offset);
+                    while (record.hasRemaining()) {
+                        newChannel.write(record);
+                    }
+                    newEnd += recordSize;
+                }
+                newChannel.force(true);
+                // the header is written last, as it marks the file as complete
+                var header = ByteBuffer.allocate(HEADER_SIZE);
+                // the last four bytes of the header are reserved
+                header.putInt(MAGIC).putInt(VERSION).putInt(newEnd).putInt(0).flip();
+                while (header.hasRemaining()) {
+                    newChannel.write(header, header.position());
+                }
+                newChannel.force(true);
+            }
+            var newFile = load(newPath, newGeneration);
+            var oldPath = getGenerationPath(generation);
+            var oldChannel = channel;
+            lock.writeLock().lock();
+            try {
+                use(newFile);
+                switched = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            oldChannel.close();
+            deleteStaleFile(oldPath);
+        } finally {
+            if (!switched) {
+                deleteStaleFile(newPath);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        buffer.force();
+        lock.writeLock().lock();
+        try {
+            try {
+                channel.close();
+            } finally {
+                channel = null;
+                buffer = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the record of the history without updating the end in the header.
+     *
+     * @return the offset of the replaced record that must be marked as dead or {@code null}
+     */
+    private Integer write(HistoryKey key, byte[] data) throws IOException {
+        var offset = offsets.get(key);
+        var name = key.getName().getBytes(StandardCharsets.UTF_8);
+        if (name.length > Short.MAX_VALUE) {
+            throw new IOException("Component name is too long");
+        }
+        int recordSize = FIXED_RECORD_SIZE + name.length + data.length;
+        ensureCapacity((long) end + recordSize);
+        int position = end;
+        buffer.putInt(position, data.length);
+        buffer.put(position + LIVE_OFFSET, LIVE);
+        buffer.putShort(position + NAME_OFFSET, (short) name.length);
+        position += NAME_OFFSET + 2;
+        putBytes(buffer, position, name);
+        position += name.length;
+        buffer.putLong(position, key.getUuid().getMostSignificantBits());
+        buffer.putLong(position + 8, key.getUuid().getLeastSignificantBits());
+        buffer.putInt(position + 16, data.length);
+        putBytes(buffer, position + 24, data);
+        buffer.putInt(position + 20, computeCrc(buffer, end));
+        offsets.put(key, end);
+        end += recordSize;
+        return offset;
+    }
+
+    /**
+     * Opens the file of the latest complete generation, deleting the files of other generations.
+     */
+    private void openLatest() throws IOException {
+        var generations = findGenerations();
+        int latest = 0;
+        for (int candidate : generations) {
+            if (isComplete(getGenerationPath(candidate))) {
+                latest = candidate;
+                break;
+            }
+        }
+        if (latest == 0) {
+            for (int candidate : generations) {
+                var candidatePath = getGenerationPath(candidate);
+                if (Files.size(candidatePath) >= HEADER_SIZE && !isBlank(candidatePath)) {
+                    throw new IOException("Unknown history file format: " + getGenerationPath(candidate));
+                }
+            }
+            latest = generations.isEmpty() ? 1 : generations.get(0);
+        }
+        open(getGenerationPath(latest), latest);
+        for (int candidate : generations) {
+            if (candidate != latest) {
+                deleteStaleFile(getGenerationPath(candidate));
+            }
+        }
+    }
+
+    private void open(Path filePath, int fileGeneration) throws IOException {
+        use(load(filePath, fileGeneration));
+    }
+
+    /**
+     * Maps the file and builds its index without changing the state of the store.
+     */
+    private static MappedFile load(Path filePath, int fileGeneration) throws IOException {
+        var fileChannel = FileChannel.open(filePath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            long fileSize = fileChannel.size();
+            if (fileSize > Integer.MAX_VALUE) {
+                throw new IOException("History file is too large");
+            }
+            var file = new MappedFile(fileChannel, fileGeneration);
+            file.buffer = fileChannel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(fileSize, INITIAL_SIZE));
+            if (fileSize < HEADER_SIZE || isBlankHeader(file.buffer)) {
+                file.buffer.putInt(0, MAGIC);
+                file.buffer.putInt(4, VERSION);
+                file.end = HEADER_SIZE;
+                file.buffer.putInt(END_OFFSET, file.end);
+                // otherwise a crash can leave a file of zeros that doesn't look like a history file
+                file.buffer.force();
+                return file;
+            }
+            if (file.buffer.getInt(0) != MAGIC || file.buffer.getInt(4) != VERSION) {
+                throw new IOException("Unknown history file format: " + filePath);
+            }
+            file.end = file.buffer.getInt(END_OFFSET);
+            if (file.end < HEADER_SIZE || file.end > fileSize) {
+                throw new IOException("Corrupted history file: " + filePath);
+            }
+            file.deadBytes = scan(file.buffer, file.end, file.offsets, filePath);
+            return file;
+        } catch (IOException | RuntimeException ex) {
+            fileChannel.close();
+            throw ex;
+        }
+    }
+
+    private void use(MappedFile file) {
+        this.channel = file.channel;
+        this.buffer = file.buffer;
+        this.offsets = file.offsets;
+        this.end = file.end;
+        this.deadBytes = file.deadBytes;
+        this.generation = file.generation;
+    }
+
+    /**
+     * Builds the index of the live records with valid CRCs.
+     *
+     * @return the number of dead bytes
+     */
+    private static int scan(ByteBuffer buffer, int end, Map<HistoryKey, Integer> offsets, Path filePath)
+            throws IOException {
+        int dead = 0;
+        int offset = HEADER_SIZE;
+        while (offset < end) {
+            if (end - offset < FIXED_RECORD_SIZE) {
+                throw new IOException("Corrupted history file: " + filePath);
+            }
+            int capacity = buffer.getInt(offset);
+            byte live = buffer.get(offset + LIVE_OFFSET);
+            int nameLength = buffer.getShort(offset + NAME_OFFSET);
+            if (capacity < 0 || nameLength < 0 || (live != LIVE && live != DEAD)) {
+                throw new IOException("Corrupted history file: " + filePath);
+            }
+            long recordSize = (long) FIXED_RECORD_SIZE + nameLength + capacity;
+            if (recordSize > end - offset) {
+                throw new IOException("Corrupted history file: " + filePath);
+            }
+            if (live == DEAD) {
+                dead += recordSize;
+            } else if (!isValid(buffer, offset)) {
+                logger.warn("Skipping damaged history record at {} in {}", offset, filePath);
+                dead += recordSize;
+            } else {
+                var name = new byte[nameLength];
+                getBytes(buffer, offset + NAME_OFFSET + 2, name);
+                int uuidOffset = offset + NAME_OFFSET + 2 + nameLength;
+                var uuid = new UUID(buffer.getLong(uuidOffset), buffer.getLong(uuidOffset + 8));
+                var previous = offsets.put(new HistoryKey(new String(name, StandardCharsets.UTF_8), uuid), offset);
+                // the old record wasn't marked as dead before the crash, the newer one wins
+                if (previous != null) {
+                    dead += getRecordSize(buffer, previous);
+                }
+            }
+            offset += (int) recordSize;
+        }
+        return dead;
+    }
+
+    private static boolean isValid(ByteBuffer buffer, int offset) {
+        int dataOffset = getDataOffset(buffer, offset);
+        int dataLength = buffer.getInt(dataOffset - 8);
+        if (dataLength < 0 || dataLength > buffer.getInt(offset)) {
+            return false;
+        }
+        return buffer.getInt(dataOffset - 4) == computeCrc(buffer, offset);
+    }
+
+    /**
+     * Computes the CRC of the record that covers the capacity, the name, the UUID, the data length and the data.
+     */
+    private static int computeCrc(ByteBuffer buffer, int offset) {
+        var crc = new CRC32();
+        int dataOffset = getDataOffset(buffer, offset);
+        var part = buffer.duplicate();
+        part.limit(offset + LIVE_OFFSET).position(offset);
+        crc.update(part);
+        part.limit(dataOffset - 4).position(offset + NAME_OFFSET);
+        crc.update(part);
+        part.limit(dataOffset + buffer.getInt(dataOffset - 8)).position(dataOffset);
+        crc.update(part);
+        return (int) crc.getValue();
+    }
+
+    private static int getRecordSize(ByteBuffer buffer, int offset) {
+        int nameLength = buffer.getShort(offset + NAME_OFFSET);
+        return FIXED_RECORD_SIZE + nameLength + buffer.getInt(offset);
+    }
+
+    private static int getDataOffset(ByteBuffer buffer, int offset) {
+        int nameLength = buffer.getShort(offset + NAME_OFFSET);
+        return offset + FIXED_RECORD_SIZE + nameLength;
+    }
+
+    private static void getBytes(ByteBuffer buffer, int offset, byte[] bytes) {
+        buffer.duplicate().position(offset).get(bytes);
+    }
+
+    private static void putBytes(ByteBuffer buffer, int offset, byte[] bytes) {
+        buffer.duplicate().position(offset).put(bytes);
+    }
+
+    private static boolean isBlankHeader(ByteBuffer buffer) {
+        for (int i = 0; i < HEADER_SIZE; i++) {
+            if (buffer.get(i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isComplete(Path filePath) throws IOException {
+        var header = readHeader(filePath);
+        return header != null && header.getInt(0) == MAGIC && header.getInt(4) == VERSION;
+    }
+
+    private boolean isBlank(Path filePath) throws IOException {
+        var header = readHeader(filePath);
+        return header != null && isBlankHeader(header);
+    }
+
+    /**
+     * Reads the header of the file or returns {@code null} if the file is shorter than the header.
+     */
+    private ByteBuffer readHeader(Path filePath) throws IOException {
+        try (var fileChannel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            if (fileChannel.size() < HEADER_SIZE) {
+                return null;
+            }
+            var header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining()) {
+                if (fileChannel.read(header, header.position()) < 0) {
+                    return null;
+                }
+            }
+            return header;
+        }
+    }
+
+    /**
+     * Returns the generations of the existing files, the latest first.
+     */
+    private List<Integer> findGenerations() throws IOException {
+        var generations = new ArrayList<Integer>();
+        var directory = path.toAbsolutePath().getParent();
+        var prefix = path.getFileName() + ".";
+        if (directory == null || !Files.isDirectory(directory)) {
+            return generations;
+        }
+        try (var stream = Files.newDirectoryStream(directory, p -> p.getFileName().toString().startsWith(prefix))) {
+            for (var filePath : stream) {
+                var suffix = filePath.getFileName().toString().substring(prefix.length());
+                if (suffix.matches("[1-9][0-9]{0,8}")) {
+                    generations.add(Integer.parseInt(suffix));
+                }
+            }
+        }
+        generations.sort(Collections.reverseOrder());
+        return generations;
+    }
+
+    private Path getGenerationPath(int fileGeneration) {
+        return path.resolveSibling(path.getFileName() + "." + fileGeneration);
+    }
+
+    private void deleteStaleFile(Path filePath) {
+        try {
+            Files.deleteIfExists(filePath);
+        } catch (IOException ex) {
+            // for example, the file is still mapped on Windows, it will be deleted when the store is opened next time
+            logger.debug("Error deleting stale history file {}", filePath, ex);
+        }
+    }
+
+    private void ensureCapacity(long capacity) throws IOException {
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IOException("History file is too large");
+        }
+        if (capacity > buffer.capacity()) {
+            long newSize = Math.min(Integer.MAX_VALUE, Math.max(capacity, (long) buffer.capacity() << 1));
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, newSize);
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (channel == null) {
+            throw new IOException("History store is closed");
+        }
+    }
+
+    /**
+     * The mapped file of one generation with its index.
+     */
+    private static final class MappedFile {
+
+        private final FileChannel channel;
+
+        private final int generation;
+
+        private final Map<HistoryKey, Integer> offsets = new HashMap<>();
+
+        private MappedByteBuffer buffer;
+
+        private int end;
+
+        private int deadBytes;
+
+        MappedFile(FileChannel channel, int generation) {
+            this.channel = channel;
+            this.generation = generation;
+        }
+    }
+}
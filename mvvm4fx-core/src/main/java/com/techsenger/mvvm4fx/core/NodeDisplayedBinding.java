@@ -0,0 +1,90 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.mvvm4fx.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import javafx.beans.Observable;
+import javafx.beans.binding.BooleanBinding;
+import javafx.scene.Node;
+
+/**
+ * Binding that is {@code true} when the node is displayed, i.e. when it is in a scene of a showing window and the
+ * node and all of its ancestors are visible. The skins of the controls hide the content of unselected tabs and of
+ * collapsed titled panes, so such content isn't considered displayed.
+ *
+ * <p>The binding observes the path from the node to the window, that changes when the node or its ancestors are
+ * moved, so the dependencies are collected anew every time the value is computed. The walk stops at the first
+ * failed check, as the nodes above it can't make the node displayed.
+ *
+ * @author Pavel Castornii
+ */
+class NodeDisplayedBinding extends BooleanBinding {
+
+    private final Node node;
+
+    private final List<Observable> dependencies = new ArrayList<>();
+
+    NodeDisplayedBinding(Node node) {
+        this.node = node;
+    }
+
+    @Override
+    public void dispose() {
+        unbindDependencies();
+    }
+
+    @Override
+    protected boolean computeValue() {
+        unbindDependencies();
+        boolean displayed = isDisplayed();
+        bind(dependencies.toArray(new Observable[0]));
+        return displayed;
+    }
+
+    private boolean isDisplayed() {
+        dependencies.add(node.sceneProperty());
+        var scene = node.getScene();
+        if (scene == null) {
+            return false;
+        }
+        dependencies.add(scene.windowProperty());
+        var window = scene.getWindow();
+        if (window == null) {
+            return false;
+        }
+        dependencies.add(window.showingProperty());
+        if (!window.isShowing()) {
+            return false;
+        }
+        Node current = node;
+        while (current != null) {
+            dependencies.add(current.visibleProperty());
+            if (!current.isVisible()) {
+                return false;
+            }
+            dependencies.add(current.parentProperty());
+            current = current.getParent();
+        }
+        return true;
+    }
+
+    private void unbindDependencies() {
+        unbind(dependencies.toArray(new Observable[0]));
+        dependencies.clear();
+    }
+}
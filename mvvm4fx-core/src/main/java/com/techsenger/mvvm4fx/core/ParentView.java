@@ -17,6 +17,8 @@
 package com.techsenger.mvvm4fx.core;
 
 import java.util.Iterator;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 import javafx.collections.ObservableList;
 
 /**
@@ -33,6 +35,15 @@ public interface ParentView<T extends ParentViewModel> extends ComponentView<T>
      */
     ObservableList<ChildView<?>> getChildren();
 
+    /**
+     * Returns the registry of the component tree this component belongs to. The registry is created on the first
+     * call for the root of the tree (the topmost component reachable via {@link ChildView#getParent()}) and is then
+     * shared by all components of the tree. Components added to the tree later are registered automatically.
+     *
+     * @return the registry of the component tree (never {@code null})
+     */
+    ComponentRegistry getRegistry();
+
     /**
      * Returns an iterator that traverses the component subtree starting from this component in depth-first order.
      *
@@ -40,10 +51,89 @@ public interface ParentView<T extends ParentViewModel> extends ComponentView<T>
      */
     SubtreeIterator<ParentView<?>> depthFirstIterator();
 
+    /**
+     * Returns an iterator that traverses the component subtree starting from this component in depth-first order,
+     * not descending deeper than {@code maxDepth} and skipping the descendants (together with their own subtrees)
+     * that are rejected by the filter. This component is always returned.
+     *
+     * @param maxDepth the maximal depth of the returned components, this component has depth {@code 0}
+     * @param filter the filter for the descendants or {@code null} if all descendants are accepted
+     * @return an {@link Iterator} that iterates over this component and the accepted descendants
+     */
+    SubtreeIterator<ParentView<?>> depthFirstIterator(int maxDepth, Predicate<? super ParentView<?>> filter);
+
     /**
      * Returns an iterator that traverses the component subtree starting from this component in breadth-first order.
      *
      * @return an {@link Iterator} that iterates over this component and all of its descendants
      */
     SubtreeIterator<ParentView<?>> breadthFirstIterator();
+
+    /**
+     * Returns an iterator that traverses the component subtree starting from this component in breadth-first order,
+     * not descending deeper than {@code maxDepth} and skipping the descendants (together with their own subtrees)
+     * that are rejected by the filter. This component is always returned.
+     *
+     * @param maxDepth the maximal depth of the returned components, this component has depth {@code 0}
+     * @param filter the filter for the descendants or {@code null} if all descendants are accepted
+     * @return an {@link Iterator} that iterates over this component and the accepted descendants
+     */
+    SubtreeIterator<ParentView<?>> breadthFirstIterator(int maxDepth, Predicate<? super ParentView<?>> filter);
+
+    /**
+     * Returns an iterator that traverses the component subtree starting from this component in depth-first
+     * post-order, i.e. every component is returned after all of its descendants and this component is returned last.
+     *
+     * @return an {@link Iterator} that iterates over all descendants of this component and this component
+     */
+    PostOrderIterator<ParentView<?>> postOrderIterator();
+
+    /**
+     * Initializes this component and all of its descendants that are in {@link ComponentState#CONSTRUCTED} state.
+     * Parents are initialized before their children (depth-first pre-order) and the children of a component are read
+     * after it is initialized, so the children created during its initialization are initialized too. The descendants
+     * that wait for their lazy initialization (see {@link ChildView#initializeLazily()}) are skipped together with
+     * their subtrees.
+     */
+    void initializeSubtree();
+
+    /**
+     * Initializes this component and all of its descendants that are in {@link ComponentState#CONSTRUCTED} state in
+     * batched mode. At first all components are built ({@code preInitialize} and {@code build}), then the attach
+     * action is run, and only then all components are bound, their listeners and handlers are added and
+     * {@code postInitialize} is called. Both passes go in depth-first pre-order. The descendants that wait for their
+     * lazy initialization are skipped together with their subtrees.
+     *
+     * <p>The attach action is supposed to add the node of the subtree root to a live scene graph in one step, so that
+     * the scene graph receives a single structural change and CSS and layout are processed once for the whole subtree
+     * instead of once per component. The components must not be initialized by other code until this method returns.
+     *
+     * @param attachAction the action that attaches the built subtree to the scene graph, can be {@code null}
+     */
+    void initializeSubtree(Runnable attachAction);
+
+    /**
+     * Deinitializes this component and all of its descendants that are in {@link ComponentState#INITIALIZED} or
+     * {@link ComponentState#SUSPENDED} state. Children are deinitialized before their parents (depth-first post-order)
+     * in a single pass over the subtree. The pending lazy initialization of the descendants that haven't been
+     * initialized yet is cancelled. The children lists must not be modified while the subtree is being deinitialized.
+     */
+    void deinitializeSubtree();
+
+    /**
+     * Returns a sequential stream of this component and all of its descendants in depth-first order. The stream is
+     * created from a snapshot of the subtree taken when this method is called, so it must be called in the thread that
+     * modifies the component tree (usually the FX thread), while the stream itself can be consumed in any thread.
+     *
+     * @return a sequential stream of the subtree components
+     */
+    Stream<ParentView<?>> stream();
+
+    /**
+     * Returns a possibly parallel stream of this component and all of its descendants in depth-first order. The
+     * stream knows its exact size and is split at child boundaries. See {@link #stream()} for the snapshot semantics.
+     *
+     * @return a possibly parallel stream of the subtree components
+     */
+    Stream<ParentView<?>> parallelStream();
 }
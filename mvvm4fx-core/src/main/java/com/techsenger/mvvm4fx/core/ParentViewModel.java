@@ -17,6 +17,11 @@
 package com.techsenger.mvvm4fx.core;
 
 import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 import javafx.collections.ObservableList;
 
 /**
@@ -34,6 +39,31 @@ public interface ParentViewModel extends ComponentViewModel {
      */
     ObservableList<ChildViewModel> getChildren();
 
+    /**
+     * Returns the number of all descendants of this component. The value is maintained incrementally when the
+     * children lists of the subtree change, so this method doesn't traverse the subtree.
+     *
+     * @return the number of descendants, {@code 0} if this component has no children
+     */
+    int getDescendantCount();
+
+    /**
+     * Returns the number of descendants of this component that are in the specified state. The value is maintained
+     * incrementally when the children lists or the states of the descendants change.
+     *
+     * @param state the state of the descendants
+     * @return the number of descendants in the specified state
+     */
+    int getDescendantCount(ComponentState state);
+
+    /**
+     * Returns the maximal depth of the subtree of this component, i.e. the number of levels below this component.
+     * The value is maintained incrementally when the children lists of the subtree change.
+     *
+     * @return the maximal depth of the subtree, {@code 0} if this component has no children
+     */
+    int getMaxDepth();
+
     /**
      * Returns an iterator that traverses the component subtree starting from this component in depth-first order.
      *
@@ -41,6 +71,17 @@ public interface ParentViewModel extends ComponentViewModel {
      */
     SubtreeIterator<ParentViewModel> depthFirstIterator();
 
+    /**
+     * Returns an iterator that traverses the component subtree starting from this component in depth-first order,
+     * not descending deeper than {@code maxDepth} and skipping the descendants (together with their own subtrees)
+     * that are rejected by the filter. This component is always returned.
+     *
+     * @param maxDepth the maximal depth of the returned components, this component has depth {@code 0}
+     * @param filter the filter for the descendants or {@code null} if all descendants are accepted
+     * @return an {@link Iterator} that iterates over this component and the accepted descendants
+     */
+    SubtreeIterator<ParentViewModel> depthFirstIterator(int maxDepth, Predicate<? super ParentViewModel> filter);
+
     /**
      * Returns an iterator that traverses the component subtree starting from this component in breadth-first order.
      *
@@ -48,6 +89,67 @@ public interface ParentViewModel extends ComponentViewModel {
      */
     SubtreeIterator<ParentViewModel> breadthFirstIterator();
 
+    /**
+     * Returns an iterator that traverses the component subtree starting from this component in breadth-first order,
+     * not descending deeper than {@code maxDepth} and skipping the descendants (together with their own subtrees)
+     * that are rejected by the filter. This component is always returned.
+     *
+     * @param maxDepth the maximal depth of the returned components, this component has depth {@code 0}
+     * @param filter the filter for the descendants or {@code null} if all descendants are accepted
+     * @return an {@link Iterator} that iterates over this component and the accepted descendants
+     */
+    SubtreeIterator<ParentViewModel> breadthFirstIterator(int maxDepth, Predicate<? super ParentViewModel> filter);
+
+    /**
+     * Returns an iterator that traverses the component subtree starting from this component in depth-first
+     * post-order, i.e. every component is returned after all of its descendants and this component is returned last.
+     *
+     * @return an {@link Iterator} that iterates over all descendants of this component and this component
+     */
+    PostOrderIterator<ParentViewModel> postOrderIterator();
+
+    /**
+     * Returns a sequential stream of this component and all of its descendants in depth-first order. The stream is
+     * created from a snapshot of the subtree taken when this method is called, so it must be called in the thread that
+     * modifies the component tree (usually the FX thread), while the stream itself can be consumed in any thread.
+     *
+     * @return a sequential stream of the subtree components
+     */
+    Stream<ParentViewModel> stream();
+
+    /**
+     * Returns a possibly parallel stream of this component and all of its descendants in depth-first order. The
+     * stream knows its exact size and is split at child boundaries. See {@link #stream()} for the snapshot semantics.
+     *
+     * @return a possibly parallel stream of the subtree components
+     */
+    Stream<ParentViewModel> parallelStream();
+
+    /**
+     * Visits this component and all of its descendants in parallel using the common {@link ForkJoinPool}. See
+     * {@link #visitInParallel(Consumer, ForkJoinPool)} for details.
+     *
+     * @param visitor the thread-safe visitor
+     * @return the submitted task that completes when all components have been visited
+     */
+    ForkJoinTask<Void> visitInParallel(Consumer<? super ParentViewModel> visitor);
+
+    /**
+     * Visits this component and all of its descendants in parallel using the specified {@link ForkJoinPool}. The
+     * components are split into ranges processed by separate ForkJoin tasks, so CPU-heavy work (validation, dirty
+     * checks, indexing etc.) can use all available cores. The order of the visits is not defined.
+     *
+     * <p>This method must be called in the thread that modifies the component tree (usually the FX thread). It takes
+     * a snapshot of the children lists in the calling thread and returns immediately, so the visitor works with a
+     * consistent tree even if the tree is modified after this method returns. The visitor is called in the pool
+     * threads, so it must be thread-safe and mustn't modify the tree.
+     *
+     * @param visitor the thread-safe visitor
+     * @param pool the pool to run the tasks in
+     * @return the submitted task that completes when all components have been visited
+     */
+    ForkJoinTask<Void> visitInParallel(Consumer<? super ParentViewModel> visitor, ForkJoinPool pool);
+
     /**
      * Returns the mediator associated with this component.
      *
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.mvvm4fx.core;
+
+import java.util.Iterator;
+
+/**
+ * Iterator that returns the elements of a subtree in depth-first post-order, i.e. every element is returned after all
+ * of its descendants. Unlike {@link SubtreeIterator} it can't prune the children of the returned element, because
+ * they have already been returned.
+ *
+ * @author Pavel Castornii
+ */
+public interface PostOrderIterator<T> extends Iterator<T> {
+
+    /**
+     * Returns the depth of the element returned by the last call to {@link #next()}. The root of the subtree has
+     * depth {@code 0}, its children have depth {@code 1} and so on.
+     *
+     * @return the depth of the current element
+     * @throws IllegalStateException if {@link #next()} hasn't been called yet
+     */
+    int getDepth();
+}
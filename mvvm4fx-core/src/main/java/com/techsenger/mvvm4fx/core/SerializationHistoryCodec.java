@@ -0,0 +1,52 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.mvvm4fx.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+/**
+ * Codec that uses the standard Java serialization.
+ *
+ * @author Pavel Castornii
+ */
+public class SerializationHistoryCodec implements HistoryCodec {
+
+    @Override
+    public byte[] encode(ComponentHistory<?> history) throws IOException {
+        history.preSerialize();
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new ObjectOutputStream(bytes)) {
+            out.writeObject(history);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public ComponentHistory<?> decode(byte[] data) throws IOException {
+        try (var in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            var history = (ComponentHistory<?>) in.readObject();
+            history.postDeserialize();
+            return history;
+        } catch (ClassNotFoundException | ClassCastException ex) {
+            throw new IOException("Error decoding history", ex);
+        }
+    }
+}
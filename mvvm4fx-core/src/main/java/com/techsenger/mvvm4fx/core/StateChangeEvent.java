@@ -0,0 +1,39 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.mvvm4fx.core;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JDK Flight Recorder event for a state change of a component. The duration covers the processing of the change
+ * including the history restoration or saving.
+ *
+ * @author Pavel Castornii
+ */
+@Name("com.techsenger.mvvm4fx.StateChange")
+@Label("Component State Change")
+@Description("Change of the component state")
+final class StateChangeEvent extends AbstractComponentEvent {
+
+    @Label("Old State")
+    String oldState;
+
+    @Label("New State")
+    String newState;
+}
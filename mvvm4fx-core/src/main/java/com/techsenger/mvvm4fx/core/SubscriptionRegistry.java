@@ -0,0 +1,293 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.mvvm4fx.core;
+
+import java.util.Arrays;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.beans.property.Property;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.event.Event;
+import javafx.event.EventHandler;
+import javafx.event.EventType;
+import javafx.scene.Node;
+
+/**
+ * Registers listeners, bindings and handlers and records them, so all of them can be undone by one call. The records
+ * are kept in parallel arrays, so no object is allocated per registration except the listener itself.
+ *
+ * <p>The registries of a component are provided by {@link AbstractComponentView} and are undone by the framework
+ * automatically. The registry is not thread-safe and must be used in the FX thread.
+ *
+ * @author Pavel Castornii
+ */
+public final class SubscriptionRegistry {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private static final byte CHANGE_LISTENER = 0;
+
+    private static final byte INVALIDATION_LISTENER = 1;
+
+    private static final byte LIST_CHANGE_LISTENER = 2;
+
+    private static final byte BINDING = 3;
+
+    private static final byte BIDIRECTIONAL_BINDING = 4;
+
+    private static final byte EVENT_HANDLER = 5;
+
+    private static final byte EVENT_FILTER = 6;
+
+    private static final byte REMOVER = 7;
+
+    private byte[] kinds = new byte[INITIAL_CAPACITY];
+
+    /**
+     * The objects the subscriptions were made to.
+     */
+    private Object[] targets = new Object[INITIAL_CAPACITY];
+
+    /**
+     * Listeners, handlers, bidirectionally bound properties or removers.
+     */
+    private Object[] subscribers = new Object[INITIAL_CAPACITY];
+
+    /**
+     * Event types of handlers and filters.
+     */
+    private Object[] eventTypes;
+
+    private int size;
+
+    SubscriptionRegistry() {
+
+    }
+
+    /**
+     * Adds the change listener to the observable value.
+     *
+     * @param observable the observable value
+     * @param listener the listener
+     */
+    public <V> void addChangeListener(ObservableValue<V> observable, ChangeListener<? super V> listener) {
+        observable.addListener(listener);
+        record(CHANGE_LISTENER, observable, listener);
+    }
+
+    /**
+     * Adds the invalidation listener to the observable.
+     *
+     * @param observable the observable
+     * @param listener the listener
+     */
+    public void addInvalidationListener(Observable observable, InvalidationListener listener) {
+        observable.addListener(listener);
+        record(INVALIDATION_LISTENER, observable, listener);
+    }
+
+    /**
+     * Adds the list change listener to the observable list.
+     *
+     * @param list the observable list
+     * @param listener the listener
+     */
+    public <E> void addListChangeListener(ObservableList<E> list, ListChangeListener<? super E> listener) {
+        list.addListener(listener);
+        record(LIST_CHANGE_LISTENER, list, listener);
+    }
+
+    /**
+     * Binds the property to the observable value.
+     *
+     * @param property the property to bind
+     * @param observable the observable value
+     */
+    public <V> void bind(Property<V> property, ObservableValue<? extends V> observable) {
+        property.bind(observable);
+        record(BINDING, property, null);
+    }
+
+    /**
+     * Binds the properties bidirectionally.
+     *
+     * @param property the first property
+     * @param other the second property
+     */
+    public <V> void bindBidirectional(Property<V> property, Property<V> other) {
+        property.bindBidirectional(other);
+        record(BIDIRECTIONAL_BINDING, property, other);
+    }
+
+    /**
+     * Adds the event handler to the node.
+     *
+     * @param node the node
+     * @param eventType the event type
+     * @param handler the handler
+     */
+    public <E extends Event> void addEventHandler(Node node, EventType<E> eventType, EventHandler<? super E> handler) {
+        node.addEventHandler(eventType, handler);
+        recordEvent(EVENT_HANDLER, node, eventType, handler);
+    }
+
+    /**
+     * Adds the event filter to the node.
+     *
+     * @param node the node
+     * @param eventType the event type
+     * @param filter the filter
+     */
+    public <E extends Event> void addEventFilter(Node node, EventType<E> eventType, EventHandler<? super E> filter) {
+        node.addEventFilter(eventType, filter);
+        recordEvent(EVENT_FILTER, node, eventType, filter);
+    }
+
+    /**
+     * Records an arbitrary subscription that was made by the caller and that is undone by the remover.
+     *
+     * @param remover the action that undoes the subscription
+     */
+    public void add(Runnable remover) {
+        record(REMOVER, null, remover);
+    }
+
+    /**
+     * Returns the number of all recorded subscriptions.
+     *
+     * @return the number of subscriptions
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of recorded listeners.
+     *
+     * @return the number of listeners
+     */
+    public int getListenerCount() {
+        return count(CHANGE_LISTENER, LIST_CHANGE_LISTENER);
+    }
+
+    /**
+     * Returns the number of recorded bindings.
+     *
+     * @return the number of bindings
+     */
+    public int getBindingCount() {
+        return count(BINDING, BIDIRECTIONAL_BINDING);
+    }
+
+    /**
+     * Returns the number of recorded event handlers and filters.
+     *
+     * @return the number of handlers and filters
+     */
+    public int getHandlerCount() {
+        return count(EVENT_HANDLER, EVENT_FILTER);
+    }
+
+    /**
+     * Undoes all recorded subscriptions in the reverse order and clears the registry.
+     */
+    @SuppressWarnings("unchecked")
+    public void removeAll() {
+        for (int i = size - 1; i >= 0; i--) {
+            Object target = targets[i];
+            Object subscriber = subscribers[i];
+            switch (kinds[i]) {
+                case CHANGE_LISTENER:
+                    ((ObservableValue<Object>) target).removeListener((ChangeListener<Object>) subscriber);
+                    break;
+                case INVALIDATION_LISTENER:
+                    ((Observable) target).removeListener((InvalidationListener) subscriber);
+                    break;
+                case LIST_CHANGE_LISTENER:
+                    ((ObservableList<Object>) target).removeListener((ListChangeListener<Object>) subscriber);
+                    break;
+                case BINDING:
+                    ((Property<?>) target).unbind();
+                    break;
+                case BIDIRECTIONAL_BINDING:
+                    ((Property<Object>) target).unbindBidirectional((Property<Object>) subscriber);
+                    break;
+                case EVENT_HANDLER:
+                    ((Node) target).removeEventHandler((EventType<Event>) eventTypes[i],
+                            (EventHandler<Event>) subscriber);
+                    break;
+                case EVENT_FILTER:
+                    ((Node) target).removeEventFilter((EventType<Event>) eventTypes[i],
+                            (EventHandler<Event>) subscriber);
+                    break;
+                case REMOVER:
+                    ((Runnable) subscriber).run();
+                    break;
+                default:
+                    throw new AssertionError();
+            }
+            targets[i] = null;
+            subscribers[i] = null;
+            if (eventTypes != null) {
+                eventTypes[i] = null;
+            }
+        }
+        size = 0;
+    }
+
+    private void record(byte kind, Object target, Object subscriber) {
+        ensureCapacity(size + 1);
+        kinds[size] = kind;
+        targets[size] = target;
+        subscribers[size] = subscriber;
+        size++;
+    }
+
+    private void recordEvent(byte kind, Node node, EventType<?> eventType, EventHandler<?> handler) {
+        ensureCapacity(size + 1);
+        if (eventTypes == null) {
+            eventTypes = new Object[targets.length];
+        }
+        eventTypes[size] = eventType;
+        record(kind, node, handler);
+    }
+
+    private int count(byte fromKind, byte toKind) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (kinds[i] >= fromKind && kinds[i] <= toKind) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > targets.length) {
+            int newCapacity = Math.max(capacity, targets.length << 1);
+            kinds = Arrays.copyOf(kinds, newCapacity);
+            targets = Arrays.copyOf(targets, newCapacity);
+            subscribers = Arrays.copyOf(subscribers, newCapacity);
+            if (eventTypes != null) {
+                eventTypes = Arrays.copyOf(eventTypes, newCapacity);
+            }
+        }
+    }
+}
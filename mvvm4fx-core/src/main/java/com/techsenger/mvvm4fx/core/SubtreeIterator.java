@@ -24,5 +24,21 @@ import java.util.Iterator;
  */
 public interface SubtreeIterator<T> extends Iterator<T> {
 
+    /**
+     * Returns the depth of the element returned by the last call to {@link #next()}. The root of the subtree has
+     * depth {@code 0}, its children have depth {@code 1} and so on.
+     *
+     * @return the depth of the current element
+     * @throws IllegalStateException if {@link #next()} hasn't been called yet
+     */
     int getDepth();
+
+    /**
+     * Prunes the subtree of the element returned by the last call to {@link #next()}, so that the iterator doesn't
+     * descend into its children. The element itself has already been returned and is not affected. Calling this
+     * method more than once for the same element has no effect.
+     *
+     * @throws IllegalStateException if {@link #next()} hasn't been called yet
+     */
+    void skipChildren();
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.techsenger.mvvm4fx.core;
+
+import java.util.Arrays;
+
+/**
+ * An immutable copy of a component subtree. The nodes are stored in depth-first (pre-order) order, so every subtree
+ * occupies a contiguous range of indexes: the subtree of the node at index {@code i} is {@code [i, getEnd(i))}. This
+ * layout makes it possible to get the size of any subtree and to split the work at child boundaries without
+ * accessing the original tree, which can be modified at the same time in another thread.
+ *
+ * @author Pavel Castornii
+ */
+final class SubtreeSnapshot<T> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Takes a snapshot of the subtree traversed by the iterator. The iterator must return the elements in depth-first
+     * order. The method must be called in the thread that modifies the tree.
+     *
+     * @param iterator the depth-first iterator
+     * @return the snapshot
+     */
+    static <T> SubtreeSnapshot<T> of(SubtreeIterator<T> iterator) {
+        Object[] nodes = new Object[INITIAL_CAPACITY];
+        int[] ends = new int[INITIAL_CAPACITY];
+        // indexes of the nodes whose subtrees are not closed yet, one per depth level
+        int[] open = new int[INITIAL_CAPACITY];
+        int openCount = 0;
+        int size = 0;
+        while (iterator.hasNext()) {
+            T node = iterator.next();
+            int depth = iterator.getDepth();
+            // all open nodes at the same or a deeper level are complete now
+            while (openCount > depth) {
+                ends[open[--openCount]] = size;
+            }
+            if (size == nodes.length) {
+                int newCapacity = size + (size >> 1);
+                nodes = Arrays.copyOf(nodes, newCapacity);
+                ends = Arrays.copyOf(ends, newCapacity);
+            }
+            if (openCount == open.length) {
+                open = Arrays.copyOf(open, openCount << 1);
+            }
+            nodes[size] = node;
+            open[openCount++] = size;
+            size++;
+        }
+        while (openCount > 0) {
+            ends[open[--openCount]] = size;
+        }
+        return new SubtreeSnapshot<>(nodes, ends, size);
+    }
+
+    private final Object[] nodes;
+
+    private final int[] ends;
+
+    private final int size;
+
+    private SubtreeSnapshot(Object[] nodes, int[] ends, int size) {
+        this.nodes = nodes;
+        this.ends = ends;
+        this.size = size;
+    }
+
+    /**
+     * Returns the number of nodes in the snapshot.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the node at the specified index.
+     */
+    @SuppressWarnings("unchecked")
+    T get(int index) {
+        return (T) nodes[index];
+    }
+
+    /**
+     * Returns the exclusive end index of the subtree of the node at the specified index.
+     */
+    int getEnd(int index) {
+        return ends[index];
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.techsenger.mvvm4fx.core;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A spliterator over a range of a {@link SubtreeSnapshot}. As the snapshot is immutable, the spliterator knows the
+ * exact size of every range and splits it at child boundaries, so that each part contains whole subtrees whenever
+ * that gives a reasonably balanced split.
+ *
+ * @author Pavel Castornii
+ */
+final class SubtreeSpliterator<T> implements Spliterator<T> {
+
+    private final SubtreeSnapshot<T> snapshot;
+
+    private int from;
+
+    private final int to;
+
+    SubtreeSpliterator(SubtreeSnapshot<T> snapshot) {
+        this(snapshot, 0, snapshot.size());
+    }
+
+    private SubtreeSpliterator(SubtreeSnapshot<T> snapshot, int from, int to) {
+        this.snapshot = snapshot;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (from >= to) {
+            return false;
+        }
+        action.accept(snapshot.get(from++));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        for (int i = from; i < to; i++) {
+            action.accept(snapshot.get(i));
+        }
+        from = to;
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        int size = to - from;
+        if (size < 2) {
+            return null;
+        }
+        int mid = from + (size >>> 1);
+        int minPart = size >>> 2;
+        int split = -1;
+        int i = from;
+        // walks the siblings of the range, descending only into the subtree that contains the middle
+        while (split == -1) {
+            int end = Math.min(snapshot.getEnd(i), to);
+            if (end <= mid) {
+                i = end;
+            } else if (i > from && i - from >= minPart) {
+                split = i;
+            } else if (end < to && to - end >= minPart) {
+                split = end;
+            } else if (i == mid) {
+                split = mid;
+            } else {
+                i++;
+            }
+        }
+        var prefix = new SubtreeSpliterator<>(snapshot, from, split);
+        from = split;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return to - from;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+    }
+}
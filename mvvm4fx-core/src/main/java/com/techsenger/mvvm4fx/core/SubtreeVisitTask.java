@@ -0,0 +1,64 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.techsenger.mvvm4fx.core;
+
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * A ForkJoin task that visits a range of nodes of a {@link SubtreeSnapshot}. As the visitor doesn't depend on the
+ * tree structure, the range is split in halves regardless of the subtree boundaries, so wide and shallow trees (for
+ * example, one parent with thousands of leaf children) are processed by all threads as well as deep ones.
+ *
+ * @author Pavel Castornii
+ */
+final class SubtreeVisitTask<T> extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Ranges with this number of nodes or fewer are visited without forking.
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 16;
+
+    private final transient SubtreeSnapshot<T> snapshot;
+
+    private final transient Consumer<? super T> visitor;
+
+    private final int from;
+
+    private final int to;
+
+    SubtreeVisitTask(SubtreeSnapshot<T> snapshot, Consumer<? super T> visitor, int from, int to) {
+        this.snapshot = snapshot;
+        this.visitor = visitor;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from <= SEQUENTIAL_THRESHOLD) {
+            for (int i = from; i < to; i++) {
+                visitor.accept(snapshot.get(i));
+            }
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        invokeAll(new SubtreeVisitTask<>(snapshot, visitor, from, middle),
+                new SubtreeVisitTask<>(snapshot, visitor, middle, to));
+    }
+}
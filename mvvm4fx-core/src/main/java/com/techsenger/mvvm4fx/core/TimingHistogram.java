@@ -0,0 +1,149 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.mvvm4fx.core;
+
+/**
+ * A histogram of durations in nanoseconds with power-of-two buckets. The bucket {@code i} contains the durations in
+ * range {@code [2^(i - 1), 2^i)}, the bucket {@code 0} contains zero durations. The histogram is thread-safe.
+ *
+ * @author Pavel Castornii
+ */
+public class TimingHistogram {
+
+    /**
+     * The number of buckets.
+     */
+    public static final int BUCKET_COUNT = Long.SIZE + 1;
+
+    /**
+     * Returns the exclusive upper bound of the bucket in nanoseconds.
+     *
+     * @param bucket the bucket index
+     * @return the upper bound of the bucket
+     */
+    public static long getBucketUpperBound(int bucket) {
+        return bucket >= Long.SIZE - 1 ? Long.MAX_VALUE : 1L << bucket;
+    }
+
+    private final long[] buckets = new long[BUCKET_COUNT];
+
+    private long count;
+
+    private long totalNanos;
+
+    private long minNanos = Long.MAX_VALUE;
+
+    private long maxNanos;
+
+    TimingHistogram() {
+
+    }
+
+    /**
+     * Returns the number of recorded durations.
+     *
+     * @return the number of durations
+     */
+    public synchronized long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the sum of all recorded durations.
+     *
+     * @return the total duration in nanoseconds
+     */
+    public synchronized long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Returns the mean duration.
+     *
+     * @return the mean duration in nanoseconds or {@code 0} if nothing has been recorded
+     */
+    public synchronized long getMeanNanos() {
+        return count == 0 ? 0 : totalNanos / count;
+    }
+
+    /**
+     * Returns the minimal duration.
+     *
+     * @return the minimal duration in nanoseconds or {@code 0} if nothing has been recorded
+     */
+    public synchronized long getMinNanos() {
+        return count == 0 ? 0 : minNanos;
+    }
+
+    /**
+     * Returns the maximal duration.
+     *
+     * @return the maximal duration in nanoseconds
+     */
+    public synchronized long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * Returns the approximate percentile, that is the upper bound of the bucket containing it, but not greater than
+     * the maximal duration.
+     *
+     * @param percentile the percentile in range {@code [0, 100]}
+     * @return the approximate percentile in nanoseconds or {@code 0} if nothing has been recorded
+     */
+    public synchronized long getPercentileNanos(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be in [0, 100]");
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(count * percentile / 100);
+        long accumulated = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            accumulated += buckets[i];
+            if (accumulated >= rank && buckets[i] != 0) {
+                return Math.min(getBucketUpperBound(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    /**
+     * Returns a copy of the bucket counts.
+     *
+     * @return the counts of the durations per bucket
+     */
+    public synchronized long[] getBucketCounts() {
+        return buckets.clone();
+    }
+
+    synchronized void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets[Long.SIZE - Long.numberOfLeadingZeros(nanos)]++;
+        count++;
+        totalNanos += nanos;
+        if (nanos < minNanos) {
+            minNanos = nanos;
+        }
+        if (nanos > maxNanos) {
+            maxNanos = nanos;
+        }
+    }
+}
@@ -15,8 +15,9 @@
  */
 
 module com.techsenger.mvvm4fx.core {
+    requires java.management;
+    requires jdk.jfr;
     requires org.slf4j;
-    requires com.techsenger.toolkit.fx;
     requires javafx.base;
     requires javafx.graphics;
 
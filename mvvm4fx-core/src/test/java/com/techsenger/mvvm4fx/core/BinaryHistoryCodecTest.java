@@ -0,0 +1,243 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.mvvm4fx.core;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Pavel Castornii
+ */
+public class BinaryHistoryCodecTest {
+
+    public static class TestHistory extends AbstractHistory<AbstractComponentViewModel> implements BinaryHistory {
+
+        private int intValue = -5;
+
+        private long longValue = Long.MIN_VALUE;
+
+        private double doubleValue = 3.25;
+
+        private String text = "héllo";
+
+        private String nullText;
+
+        private List<String> strings = List.of("a", "b");
+
+        private Map<String, Integer> map = new LinkedHashMap<>(Map.of("x", 1));
+
+        private HistoryPolicy policy = HistoryPolicy.ALL;
+
+        private int[] ints = {1, -2, 300};
+
+        @Override
+        public void writeFields(HistoryWriter writer) {
+            writer.writeInt(intValue);
+            writer.writeLong(longValue);
+            writer.writeDouble(doubleValue);
+            writer.writeString(text);
+            writer.writeString(nullText);
+            writer.writeStrings(strings);
+            writer.writeMap(map, HistoryWriter::writeString, HistoryWriter::writeInt);
+            writer.writeEnum(policy);
+            writer.writeInts(ints);
+        }
+
+        @Override
+        public void readFields(HistoryReader reader, int version) throws IOException {
+            intValue = reader.readInt();
+            longValue = reader.readLong();
+            doubleValue = reader.readDouble();
+            text = reader.readString();
+            nullText = reader.readString();
+            strings = reader.readStrings();
+            map = reader.readMap(HistoryReader::readString, HistoryReader::readInt);
+            policy = reader.readEnum(HistoryPolicy.class);
+            ints = reader.readInts();
+        }
+    }
+
+    public static class SerializableHistory extends AbstractHistory<AbstractComponentViewModel> {
+
+        private static final long serialVersionUID = 1L;
+
+        private String text = "serialized";
+    }
+
+    private final BinaryHistoryCodec codec = new BinaryHistoryCodec();
+
+    @Test
+    public void encode_binaryHistory_roundTripsAllFields() throws IOException {
+        var history = new TestHistory();
+        history.intValue = 7;
+        history.longValue = Long.MAX_VALUE;
+        history.strings = List.of("x", "", "z");
+        history.saveData(null);
+
+        var decoded = (TestHistory) codec.decode(codec.encode(history));
+
+        assertEquals(7, decoded.intValue);
+        assertEquals(Long.MAX_VALUE, decoded.longValue);
+        assertEquals(3.25, decoded.doubleValue);
+        assertEquals("héllo", decoded.text);
+        assertNull(decoded.nullText);
+        assertEquals(List.of("x", "", "z"), decoded.strings);
+        assertEquals(Map.of("x", 1), decoded.map);
+        assertEquals(HistoryPolicy.ALL, decoded.policy);
+        assertArrayEquals(new int[] {1, -2, 300}, decoded.ints);
+        assertFalse(decoded.isFresh());
+    }
+
+    @Test
+    public void encode_freshHistory_staysFresh() throws IOException {
+        var decoded = codec.decode(codec.encode(new TestHistory()));
+
+        assertTrue(decoded.isFresh());
+    }
+
+    @Test
+    public void encode_registeredType_writesTypeIdInsteadOfClassName() throws IOException {
+        var history = new TestHistory();
+        var unregistered = codec.encode(history);
+        codec.register(TestHistory.class, "t", TestHistory::new);
+
+        var registered = codec.encode(history);
+
+        assertTrue(registered.length < unregistered.length);
+        assertInstanceOf(TestHistory.class, codec.decode(registered));
+        // the data written before the registration is still readable
+        assertInstanceOf(TestHistory.class, codec.decode(unregistered));
+    }
+
+    @Test
+    public void encode_nonBinaryHistory_fallsBackToSerialization() throws IOException {
+        var history = new SerializableHistory();
+        history.text = "changed";
+
+        var decoded = (SerializableHistory) codec.decode(codec.encode(history));
+
+        assertEquals("changed", decoded.text);
+    }
+
+    @Test
+    public void decode_dataOfSerializationCodec_isRead() throws IOException {
+        var history = new SerializableHistory();
+        history.text = "legacy";
+        var data = new SerializationHistoryCodec().encode(history);
+
+        var decoded = (SerializableHistory) codec.decode(data);
+
+        assertEquals("legacy", decoded.text);
+    }
+
+    @Test
+    public void decode_emptyData_throwsException() {
+        assertThrows(IOException.class, () -> codec.decode(new byte[0]));
+    }
+
+    @Test
+    public void decode_unknownFormat_throwsException() {
+        assertThrows(IOException.class, () -> codec.decode(new byte[] {'X', 1, 2}));
+    }
+
+    @Test
+    public void decode_truncatedData_throwsException() throws IOException {
+        var data = codec.encode(new TestHistory());
+
+        for (int length = 1; length < data.length; length++) {
+            var truncated = Arrays.copyOf(data, length);
+            assertThrows(IOException.class, () -> codec.decode(truncated));
+        }
+    }
+
+    @Test
+    public void decode_unknownType_throwsException() {
+        var data = createHeader("com.techsenger.mvvm4fx.core.MissingHistory");
+
+        assertThrows(IOException.class, () -> codec.decode(data));
+    }
+
+    @Test
+    public void decode_typeThatIsNotHistory_throwsException() {
+        var data = createHeader(String.class.getName());
+
+        assertThrows(IOException.class, () -> codec.decode(data));
+    }
+
+    @Test
+    public void readString_lengthBeyondData_throwsException() {
+        var writer = new HistoryWriter(8);
+        writer.writeUnsignedVarInt(100);
+        var reader = new HistoryReader(writer.toByteArray(), 0);
+
+        assertThrows(IOException.class, reader::readString);
+    }
+
+    @Test
+    public void readList_lengthBeyondData_throwsException() {
+        var writer = new HistoryWriter(8);
+        writer.writeUnsignedVarInt(Integer.MAX_VALUE);
+        var reader = new HistoryReader(writer.toByteArray(), 0);
+
+        assertThrows(IOException.class, reader::readStrings);
+    }
+
+    @Test
+    public void readInt_malformedVarInt_throwsException() {
+        var reader = new HistoryReader(new byte[] {-1, -1, -1, -1, -1, -1}, 0);
+
+        assertThrows(IOException.class, reader::readInt);
+    }
+
+    @Test
+    public void readDouble_endOfData_throwsEofException() {
+        var reader = new HistoryReader(new byte[] {1, 2, 3}, 0);
+
+        assertThrows(EOFException.class, reader::readDouble);
+    }
+
+    @Test
+    public void readEnum_removedConstant_returnsNull() throws IOException {
+        var writer = new HistoryWriter(8);
+        writer.writeString("REMOVED");
+        var reader = new HistoryReader(writer.toByteArray(), 0);
+
+        assertNull(reader.readEnum(HistoryPolicy.class));
+    }
+
+    private static byte[] createHeader(String typeId) {
+        var writer = new HistoryWriter(64);
+        writer.writeByte('B');
+        writer.writeString(typeId);
+        writer.writeUnsignedVarInt(1);
+        writer.writeBoolean(false);
+        return writer.toByteArray();
+    }
+}
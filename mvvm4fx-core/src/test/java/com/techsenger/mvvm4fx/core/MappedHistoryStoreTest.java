@@ -0,0 +1,265 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.mvvm4fx.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ *
+ * @author Pavel Castornii
+ */
+public class MappedHistoryStoreTest {
+
+    /**
+     * The values of the store layout that are used to damage the files.
+     */
+    private static final int HEADER_SIZE = 16;
+
+    private static final int FIXED_RECORD_SIZE = 31;
+
+    private static final int LIVE_OFFSET = 4;
+
+    private final HistoryKey first = new HistoryKey("A", new UUID(1, 1));
+
+    private final HistoryKey second = new HistoryKey("A", new UUID(2, 2));
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void read_afterReopening_returnsWrittenData() throws IOException {
+        var path = directory.resolve("h.dat");
+        try (var store = new MappedHistoryStore(path)) {
+            store.write(records(first, bytes(3, 1), second, bytes(5, 2)));
+        }
+
+        try (var store = new MappedHistoryStore(path)) {
+            assertEquals(2, store.size());
+            assertArrayEquals(bytes(3, 1), store.read(first));
+            assertArrayEquals(bytes(5, 2), store.read(second));
+            assertNull(store.read(new HistoryKey("A", new UUID(3, 3))));
+        }
+    }
+
+    @Test
+    public void write_existingKey_appendsAndMarksOldRecordDead() throws IOException {
+        var path = directory.resolve("h.dat");
+        try (var store = new MappedHistoryStore(path, 1.0)) {
+            store.write(records(first, bytes(10, 1)));
+            store.write(records(first, bytes(4, 2)));
+
+            assertArrayEquals(bytes(4, 2), store.read(first));
+            assertEquals(recordSize(10), store.getDeadBytes());
+        }
+        try (var store = new MappedHistoryStore(path, 1.0)) {
+            assertEquals(1, store.size());
+            assertArrayEquals(bytes(4, 2), store.read(first));
+            assertEquals(recordSize(10), store.getDeadBytes());
+        }
+    }
+
+    @Test
+    public void write_manyLargeRecords_growsFile() throws IOException {
+        var path = directory.resolve("h.dat");
+        var data = bytes(10_000, 7);
+        try (var store = new MappedHistoryStore(path)) {
+            for (int i = 0; i < 20; i++) {
+                store.write(records(new HistoryKey("A", new UUID(0, i)), data));
+            }
+        }
+
+        try (var store = new MappedHistoryStore(path)) {
+            assertEquals(20, store.size());
+            assertArrayEquals(data, store.read(new HistoryKey("A", new UUID(0, 19))));
+        }
+    }
+
+    @Test
+    public void compact_switchesToNextGenerationAndDeletesOldFile() throws IOException {
+        var path = directory.resolve("h.dat");
+        try (var store = new MappedHistoryStore(path, 1.0)) {
+            store.write(records(first, bytes(10, 1), second, bytes(10, 2)));
+            store.write(records(first, bytes(10, 3)));
+            var oldPath = store.getCurrentPath();
+
+            store.compact();
+
+            assertEquals(path.resolveSibling("h.dat.2"), store.getCurrentPath());
+            assertFalse(Files.exists(oldPath));
+            assertEquals(0, store.getDeadBytes());
+            assertArrayEquals(bytes(10, 3), store.read(first));
+            store.write(records(second, bytes(10, 4)));
+        }
+        try (var store = new MappedHistoryStore(path, 1.0)) {
+            assertEquals(path.resolveSibling("h.dat.2"), store.getCurrentPath());
+            assertArrayEquals(bytes(10, 3), store.read(first));
+            assertArrayEquals(bytes(10, 4), store.read(second));
+        }
+    }
+
+    @Test
+    public void write_deadRecordsAboveRatio_compactsAutomatically() throws IOException {
+        var path = directory.resolve("h.dat");
+        try (var store = new MappedHistoryStore(path, 0.5)) {
+            for (int i = 0; i < 10; i++) {
+                store.write(records(first, bytes(100, i)));
+            }
+
+            assertTrue(store.getDeadBytes() < recordSize(100));
+            assertFalse(store.getCurrentPath().equals(path.resolveSibling("h.dat.1")));
+            assertArrayEquals(bytes(100, 9), store.read(first));
+        }
+    }
+
+    @Test
+    public void open_tornNewRecordBeforeOldWasMarkedDead_keepsOldVersion() throws IOException {
+        var path = directory.resolve("h.dat");
+        Path file;
+        try (var store = new MappedHistoryStore(path, 1.0)) {
+            store.write(records(first, bytes(10, 1)));
+            store.write(records(first, bytes(10, 2)));
+            file = store.getCurrentPath();
+        }
+        // the crash happened after the new record was partially written, but before the old one was marked as dead
+        int oldOffset = HEADER_SIZE;
+        int newOffset = oldOffset + recordSize(10);
+        putByte(file, oldOffset + LIVE_OFFSET, 1);
+        putByte(file, newOffset + FIXED_RECORD_SIZE + 1 + 5, 99);
+
+        try (var store = new MappedHistoryStore(path, 1.0)) {
+            assertArrayEquals(bytes(10, 1), store.read(first));
+            assertEquals(recordSize(10), store.getDeadBytes());
+        }
+    }
+
+    @Test
+    public void open_newRecordWrittenBeforeOldWasMarkedDead_newRecordWins() throws IOException {
+        var path = directory.resolve("h.dat");
+        Path file;
+        try (var store = new MappedHistoryStore(path, 1.0)) {
+            store.write(records(first, bytes(10, 1)));
+            store.write(records(first, bytes(10, 2)));
+            file = store.getCurrentPath();
+        }
+        putByte(file, HEADER_SIZE + LIVE_OFFSET, 1);
+
+        try (var store = new MappedHistoryStore(path, 1.0)) {
+            assertEquals(1, store.size());
+            assertArrayEquals(bytes(10, 2), store.read(first));
+            assertEquals(recordSize(10), store.getDeadBytes());
+        }
+    }
+
+    @Test
+    public void open_fileWithBlankHeader_isTreatedAsEmpty() throws IOException {
+        var path = directory.resolve("h.dat");
+        Files.write(directory.resolve("h.dat.1"), new byte[64 * 1024]);
+
+        try (var store = new MappedHistoryStore(path)) {
+            assertEquals(0, store.size());
+            store.write(records(first, bytes(3, 1)));
+        }
+        try (var store = new MappedHistoryStore(path)) {
+            assertArrayEquals(bytes(3, 1), store.read(first));
+        }
+    }
+
+    @Test
+    public void open_incompleteNewerGeneration_isDeleted() throws IOException {
+        var path = directory.resolve("h.dat");
+        try (var store = new MappedHistoryStore(path)) {
+            store.write(records(first, bytes(3, 1)));
+        }
+        // the compaction was interrupted before the header of the new file was written
+        var incomplete = directory.resolve("h.dat.2");
+        var data = bytes(100, 1);
+        Arrays.fill(data, 0, HEADER_SIZE, (byte) 0);
+        Files.write(incomplete, data);
+
+        try (var store = new MappedHistoryStore(path)) {
+            assertEquals(directory.resolve("h.dat.1"), store.getCurrentPath());
+            assertArrayEquals(bytes(3, 1), store.read(first));
+        }
+        assertFalse(Files.exists(incomplete));
+    }
+
+    @Test
+    public void open_unknownFileFormat_throwsException() throws IOException {
+        Files.write(directory.resolve("h.dat.1"), bytes(100, 5));
+
+        assertThrows(IOException.class, () -> new MappedHistoryStore(directory.resolve("h.dat")));
+    }
+
+    @Test
+    public void read_closedStore_throwsException() throws IOException {
+        var store = new MappedHistoryStore(directory.resolve("h.dat"));
+        store.close();
+
+        assertThrows(IOException.class, () -> store.read(first));
+        assertThrows(IOException.class, () -> store.write(records(first, bytes(1, 1))));
+    }
+
+    private static Map<HistoryKey, byte[]> records(HistoryKey key, byte[] data) {
+        var records = new LinkedHashMap<HistoryKey, byte[]>();
+        records.put(key, data);
+        return records;
+    }
+
+    private static Map<HistoryKey, byte[]> records(HistoryKey key1, byte[] data1, HistoryKey key2, byte[] data2) {
+        var records = records(key1, data1);
+        records.put(key2, data2);
+        return records;
+    }
+
+    private static byte[] bytes(int length, int value) {
+        var data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) (value + i);
+        }
+        return data;
+    }
+
+    /**
+     * Returns the size of the record with the one-byte component name.
+     */
+    private static int recordSize(int dataLength) {
+        return FIXED_RECORD_SIZE + 1 + dataLength;
+    }
+
+    private static void putByte(Path file, int offset, int value) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {(byte) value}), offset);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2024-2025 Pavel Castornii.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.techsenger.mvvm4fx.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Pavel Castornii
+ */
+public class SubtreeSpliteratorTest {
+
+    /**
+     * A tree of integers where the root is {@code 0}.
+     */
+    private static final class Tree {
+
+        private final Map<Integer, List<Integer>> children = new HashMap<>();
+
+        private int size = 1;
+
+        int add(int parent) {
+            int node = size++;
+            children.computeIfAbsent(parent, k -> new ArrayList<>()).add(node);
+            return node;
+        }
+
+        List<Integer> getChildren(int parent) {
+            return children.getOrDefault(parent, List.of());
+        }
+
+        SubtreeSnapshot<Integer> snapshot() {
+            return SubtreeSnapshot.of(new AbstractDepthFirstIterator<Integer>(0) {
+
+                @Override
+                List<Integer> getChildren(Integer parent) {
+                    return Tree.this.getChildren(parent);
+                }
+            });
+        }
+
+        void collectPreOrder(int node, List<Integer> result) {
+            result.add(node);
+            for (int child : getChildren(node)) {
+                collectPreOrder(child, result);
+            }
+        }
+
+        int countSubtree(int node) {
+            int count = 1;
+            for (int child : getChildren(node)) {
+                count += countSubtree(child);
+            }
+            return count;
+        }
+    }
+
+    @Test
+    public void snapshot_randomTree_storesNodesInPreOrderWithSubtreeEnds() {
+        var tree = createRandomTree(500, 1);
+        var expected = new ArrayList<Integer>();
+        tree.collectPreOrder(0, expected);
+
+        var snapshot = tree.snapshot();
+
+        assertEquals(expected.size(), snapshot.size());
+        for (int i = 0; i < snapshot.size(); i++) {
+            var node = snapshot.get(i);
+            assertEquals(expected.get(i), node);
+            assertEquals(i + tree.countSubtree(node), snapshot.getEnd(i));
+        }
+    }
+
+    @Test
+    public void trySplit_randomTrees_partsCoverRangeInOrder() {
+        for (int seed = 0; seed < 20; seed++) {
+            var tree = createRandomTree(1 + seed * 37, seed);
+            var expected = new ArrayList<Integer>();
+            tree.collectPreOrder(0, expected);
+            var result = new ArrayList<Integer>();
+
+            splitRecursively(new SubtreeSpliterator<>(tree.snapshot()), result);
+
+            assertEquals(expected, result);
+        }
+    }
+
+    @Test
+    public void trySplit_wideTree_splitsBalancedAtChildBoundary() {
+        var tree = new Tree();
+        for (int i = 0; i < 100; i++) {
+            tree.add(0);
+        }
+        var snapshot = tree.snapshot();
+        var suffix = new SubtreeSpliterator<>(snapshot);
+
+        var prefix = suffix.trySplit();
+
+        long prefixSize = prefix.estimateSize();
+        assertEquals(snapshot.size(), prefixSize + suffix.estimateSize());
+        assertTrue(prefixSize >= snapshot.size() / 4 && suffix.estimateSize() >= snapshot.size() / 4);
+    }
+
+    @Test
+    public void trySplit_chain_splitsAndTerminates() {
+        var tree = new Tree();
+        int parent = 0;
+        for (int i = 0; i < 100; i++) {
+            parent = tree.add(parent);
+        }
+        var result = new ArrayList<Integer>();
+
+        splitRecursively(new SubtreeSpliterator<>(tree.snapshot()), result);
+
+        var expected = new ArrayList<Integer>();
+        tree.collectPreOrder(0, expected);
+        assertEquals(expected, result);
+    }
+
+    @Test
+    public void trySplit_singleNode_returnsNull() {
+        var spliterator = new SubtreeSpliterator<>(new Tree().snapshot());
+
+        assertNull(spliterator.trySplit());
+        assertEquals(1, spliterator.estimateSize());
+    }
+
+    @Test
+    public void trySplit_afterAdvance_splitsRemainingRange() {
+        var tree = createRandomTree(200, 3);
+        var expected = new ArrayList<Integer>();
+        tree.collectPreOrder(0, expected);
+        var spliterator = new SubtreeSpliterator<>(tree.snapshot());
+        var result = new ArrayList<Integer>();
+        for (int i = 0; i < 10; i++) {
+            spliterator.tryAdvance(result::add);
+        }
+
+        splitRecursively(spliterator, result);
+
+        assertEquals(expected, result);
+    }
+
+    @Test
+    public void parallelStream_keepsEncounterOrder() {
+        var tree = createRandomTree(5000, 7);
+        var expected = new ArrayList<Integer>();
+        tree.collectPreOrder(0, expected);
+
+        var result = StreamSupport.stream(new SubtreeSpliterator<>(tree.snapshot()), true)
+                .collect(Collectors.toList());
+
+        assertEquals(expected, result);
+    }
+
+    @Test
+    public void characteristics_areSizedAndOrdered() {
+        var spliterator = new SubtreeSpliterator<>(new Tree().snapshot());
+        int expected = Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+
+        assertEquals(expected, spliterator.characteristics() & expected);
+    }
+
+    /**
+     * Splits the spliterator until the parts can't be split and adds the elements of the parts in their order,
+     * checking that every split produces two non-empty parts with exact sizes.
+     */
+    private static void splitRecursively(Spliterator<Integer> spliterator, List<Integer> result) {
+        long size = spliterator.estimateSize();
+        var prefix = spliterator.trySplit();
+        if (prefix == null) {
+            int before = result.size();
+            spliterator.forEachRemaining(result::add);
+            assertEquals(size, result.size() - before);
+            return;
+        }
+        assertTrue(prefix.estimateSize() > 0 && spliterator.estimateSize() > 0);
+        assertEquals(size, prefix.estimateSize() + spliterator.estimateSize());
+        splitRecursively(prefix, result);
+        splitRecursively(spliterator, result);
+    }
+
+    private static Tree createRandomTree(int size, long seed) {
+        var random = new Random(seed);
+        var tree = new Tree();
+        while (tree.size < size) {
+            tree.add(random.nextInt(tree.size));
+        }
+        return tree;
+    }
+}